@@ -0,0 +1,272 @@
+package me.beresnev.algorithms.sorting;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.0
+ * @since 18.10.26.
+ */
+public class AdaptiveSorter {
+    // arrays of this size or smaller go straight to insertion sort, profiling would cost more
+    private static final int INSERTION_MAX = 64;
+    // at most this many adjacent pairs are looked at
+    private static final int SAMPLE_SIZE = 1024;
+    // share of pairs going one way for the array to be called presorted
+    private static final double PRESORTED_RATIO = 0.9;
+    // fewer distinct values in the sample than this share means lots of duplicates
+    private static final double DUPLICATES_RATIO = 0.25;
+    // radix sort's 4 passes over 256 counters pay off starting from this size
+    private static final int RADIX_MIN = 1 << 10;
+    // parallel radix sort pays off starting from this size
+    private static final int PARALLEL_MIN = 1 << 18;
+
+    private static volatile Listener listener;
+
+    /**
+     * Sort that picks the algorithm by looking at the data
+     * <p>
+     * Time complexity:
+     * - O(n + s log s) for profiling, s - sample size (1024)
+     * - plus whatever the chosen algorithm takes, O(n) for
+     * presorted data and small ranges
+     * <p>
+     * Space complexity:
+     * - O(s), plus whatever the chosen algorithm takes
+     * <p>
+     * Every sort here is the best one for some kind of data and a bad one
+     * for another. So before sorting, the array is profiled:
+     * - min and max of the whole array, one pass
+     * - s evenly spaced adjacent pairs (a[i], a[i + 1]): how many of them
+     * go up and how many go down, that's how presorted the array is
+     * - the first elements of those pairs, sorted: how many distinct
+     * values there are in the sample
+     * <p>
+     * Then, the first that fits:
+     * 1) up to 64 elements - {@link InsertionSort}, profiling isn't worth it
+     * 2) 90% of pairs go one way - {@link HybridSort}, it finds the runs and
+     * merges them, O(n) if the whole array is one run
+     * 3) range max - min + 1 is not bigger than n - {@link CountingSort}
+     * 4) 2^18 elements or more and more than one thread - {@link ParallelRadixSort}
+     * 5) less than 25% of the sample is distinct - {@link QuickSort}, it
+     * partitions duplicates of a pivot out in one go
+     * 6) 1024 elements or more - {@link RadixSort#lsdSortBytes(int[])}
+     * 7) everything else - {@link QuickSort}
+     * <p>
+     * Every call is reported to the listener, if there is one, so it's
+     * possible to see what gets chosen in production. Arrays of 0 and 1
+     * elements are reported too, as {@link Strategy#INSERTION}.
+     *
+     * @see #setListener(Listener)
+     */
+    private AdaptiveSorter() {
+    }
+
+    /**
+     * Sorts arr in place, the parallel path uses the common pool.
+     */
+    public static void sort(int[] arr) {
+        sort(arr, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts arr in place.
+     *
+     * @param pool pool for the parallel path, its parallelism
+     *             is also what decides if that path is taken
+     */
+    public static void sort(int[] arr, ForkJoinPool pool) {
+        Profile profile = profile(arr);
+        Strategy strategy = choose(profile, pool.getParallelism());
+        switch (strategy) {
+            case INSERTION:
+                InsertionSort.sort(arr, 0, arr.length);
+                break;
+            case MERGE:
+                HybridSort.sort(arr);
+                break;
+            case COUNTING:
+                CountingSort.simpleSort(arr);
+                break;
+            case PARALLEL_RADIX:
+                ParallelRadixSort.sort(arr, pool);
+                break;
+            case RADIX:
+                RadixSort.lsdSortBytes(arr);
+                break;
+            default:
+                QuickSort.sort(arr);
+        }
+
+        Listener current = listener;
+        if (current != null) {
+            current.onSort(profile, strategy);
+        }
+    }
+
+    /**
+     * Sets the listener that is told about every sort. One for the
+     * whole program, it's called by the thread that sorted the array.
+     *
+     * @param listener new listener, or null to stop reporting
+     */
+    public static void setListener(Listener listener) {
+        AdaptiveSorter.listener = listener;
+    }
+
+    /**
+     * Arrays of up to 64 elements aren't looked at, only their length is known.
+     */
+    static Profile profile(int[] arr) {
+        int length = arr.length;
+        if (length <= INSERTION_MAX)
+            return new Profile(length, 0, 0, 0, 0, 0, 0);
+
+        int minValue = arr[0];
+        int maxValue = arr[0];
+        for (int value : arr) {
+            if (value < minValue)
+                minValue = value;
+            else if (value > maxValue)
+                maxValue = value;
+        }
+
+        int sampleSize = Math.min(SAMPLE_SIZE, length - 1);
+        long step = (length - 1L) / sampleSize; // (long), so that step * i doesn't overflow
+        int[] sample = new int[sampleSize];
+        int ascending = 0;
+        int descending = 0;
+        for (int i = 0; i < sampleSize; i++) {
+            int index = (int) (step * i);
+            sample[i] = arr[index];
+            if (arr[index] < arr[index + 1])
+                ascending++;
+            else if (arr[index] > arr[index + 1])
+                descending++;
+        }
+
+        QuickSort.sort(sample);
+        int distinct = 1;
+        for (int i = 1; i < sampleSize; i++) {
+            if (sample[i] != sample[i - 1])
+                distinct++;
+        }
+        return new Profile(length, minValue, maxValue, sampleSize, ascending, descending, distinct);
+    }
+
+    static Strategy choose(Profile profile, int parallelism) {
+        int length = profile.getLength();
+        if (length <= INSERTION_MAX)
+            return Strategy.INSERTION;
+
+        // equal neighbours don't break a run either way
+        int equal = profile.getSampleSize() - profile.getAscending() - profile.getDescending();
+        double presorted = Math.max(profile.getAscending(), profile.getDescending()) + equal;
+        if (presorted >= PRESORTED_RATIO * profile.getSampleSize())
+            return Strategy.MERGE;
+
+        long range = (long) profile.getMaxValue() - profile.getMinValue() + 1;
+        if (range <= length)
+            return Strategy.COUNTING;
+
+        if (length >= PARALLEL_MIN && parallelism > 1)
+            return Strategy.PARALLEL_RADIX;
+
+        if (profile.getDistinct() < DUPLICATES_RATIO * profile.getSampleSize())
+            return Strategy.QUICK;
+
+        return length >= RADIX_MIN ? Strategy.RADIX : Strategy.QUICK;
+    }
+
+    /**
+     * What an array got sorted with.
+     */
+    public enum Strategy {
+        INSERTION, MERGE, COUNTING, PARALLEL_RADIX, RADIX, QUICK
+    }
+
+    /**
+     * Metrics hook, see {@link #setListener(Listener)}.
+     */
+    public interface Listener {
+        /**
+         * Called after the array is sorted.
+         *
+         * @param profile  what the array looked like before sorting
+         * @param strategy what it was sorted with
+         */
+        void onSort(Profile profile, Strategy strategy);
+    }
+
+    /**
+     * What profiling found out about the array. For arrays of up to 64
+     * elements only the length is filled, everything else is 0.
+     */
+    public static final class Profile {
+        private final int length;
+        private final int minValue;
+        private final int maxValue;
+        private final int sampleSize;
+        private final int ascending;
+        private final int descending;
+        private final int distinct;
+
+        Profile(int length, int minValue, int maxValue,
+                int sampleSize, int ascending, int descending, int distinct) {
+            this.length = length;
+            this.minValue = minValue;
+            this.maxValue = maxValue;
+            this.sampleSize = sampleSize;
+            this.ascending = ascending;
+            this.descending = descending;
+            this.distinct = distinct;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        public int getMinValue() {
+            return minValue;
+        }
+
+        public int getMaxValue() {
+            return maxValue;
+        }
+
+        /**
+         * @return # of adjacent pairs looked at
+         */
+        public int getSampleSize() {
+            return sampleSize;
+        }
+
+        /**
+         * @return # of sampled pairs with a[i] < a[i + 1]
+         */
+        public int getAscending() {
+            return ascending;
+        }
+
+        /**
+         * @return # of sampled pairs with a[i] > a[i + 1]
+         */
+        public int getDescending() {
+            return descending;
+        }
+
+        /**
+         * @return # of distinct values among the first elements of sampled pairs
+         */
+        public int getDistinct() {
+            return distinct;
+        }
+
+        @Override
+        public String toString() {
+            return "Profile{length=" + length + ", min=" + minValue + ", max=" + maxValue
+                    + ", sample=" + sampleSize + ", ascending=" + ascending
+                    + ", descending=" + descending + ", distinct=" + distinct + '}';
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package me.beresnev.algorithms.sorting;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.0
+ * @since 18.10.26.
+ */
+public class ArgSort {
+    // runs of this length are insertion sorted before merging
+    private static final int RUN = 16;
+
+    /**
+     * Argsort (index sort)
+     * <p>
+     * Time complexity:
+     * - radix: O(d(n + b)), d - # of digits (4 or 8), b - base (256)
+     * - merge: O(n log n)
+     * - applyPermutation: O(n) per column
+     * <p>
+     * Space complexity:
+     * - O(n) for sorting, O(1) for applyPermutation
+     * <p>
+     * When data is stored by columns (ids[], timestamps[], values[], where
+     * row i is ids[i], timestamps[i], values[i]), sorting one column
+     * breaks the rows. Instead, we sort indices: the result is a
+     * permutation p, such that keys[p[0]] <= keys[p[1]] <= ... Keys
+     * themselves aren't moved. Both sorts are stable, so rows with equal
+     * keys keep their order.
+     * <p>
+     * Then every column is reordered with the same permutation, in place:
+     * column[i] = column[p[i]] for all i at once. A permutation is a set of
+     * cycles: i takes from p[i], which takes from p[p[i]], and so on until
+     * we get back to i. Walking a cycle, every element is moved exactly once
+     * with one temp variable for the whole cycle. Visited indices are
+     * marked by flipping bits of p itself (~p[i] is negative), and flipped
+     * back at the end, so no boolean[] is needed.
+     */
+    private ArgSort() {
+    }
+
+    /**
+     * LSD radix sort by bytes of keys, same as {@link RadixSort#lsdSortBytes(int[])},
+     * only indices are moved along with keys. Keys are copied, so they're read
+     * sequentially on every pass instead of through indices.
+     *
+     * @return permutation that sorts keys, keys are not changed
+     */
+    public static int[] radixSort(int[] keys) {
+        int length = keys.length;
+        int[] srcKeys = keys.clone();
+        int[] dstKeys = new int[length];
+        int[] src = identity(length);
+        int[] dst = new int[length];
+
+        int[] count = new int[256];
+        for (int shift = 0; shift < 32; shift += 8) {
+            for (int d = 0; d < 256; d++) {
+                count[d] = 0;
+            }
+            for (int key : srcKeys) {
+                count[((key ^ Integer.MIN_VALUE) >>> shift) & 0xFF]++;
+            }
+            if (length == 0 || count[((srcKeys[0] ^ Integer.MIN_VALUE) >>> shift) & 0xFF] == length)
+                continue; // every key has the same digit, nothing to move
+
+            prefixSum(count);
+            for (int i = 0; i < length; i++) {
+                int position = count[((srcKeys[i] ^ Integer.MIN_VALUE) >>> shift) & 0xFF]++;
+                dstKeys[position] = srcKeys[i];
+                dst[position] = src[i];
+            }
+            int[] swap = srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = swap;
+            swap = src;
+            src = dst;
+            dst = swap;
+        }
+        return src;
+    }
+
+    /**
+     * Same as {@link #radixSort(int[])}, only for long keys.
+     *
+     * @return permutation that sorts keys, keys are not changed
+     */
+    public static int[] radixSort(long[] keys) {
+        int length = keys.length;
+        long[] srcKeys = keys.clone();
+        long[] dstKeys = new long[length];
+        int[] src = identity(length);
+        int[] dst = new int[length];
+
+        int[] count = new int[256];
+        for (int shift = 0; shift < 64; shift += 8) {
+            for (int d = 0; d < 256; d++) {
+                count[d] = 0;
+            }
+            for (long key : srcKeys) {
+                count[(int) ((key ^ Long.MIN_VALUE) >>> shift) & 0xFF]++;
+            }
+            if (length == 0 || count[(int) ((srcKeys[0] ^ Long.MIN_VALUE) >>> shift) & 0xFF] == length)
+                continue;
+
+            prefixSum(count);
+            for (int i = 0; i < length; i++) {
+                int position = count[(int) ((srcKeys[i] ^ Long.MIN_VALUE) >>> shift) & 0xFF]++;
+                dstKeys[position] = srcKeys[i];
+                dst[position] = src[i];
+            }
+            long[] swapKeys = srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = swapKeys;
+            int[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+        return src;
+    }
+
+    /**
+     * Bottom-up merge sort of indices, same as {@link MergeSort#sortBottomUp(int[], int[])},
+     * only elements are compared by their keys. Short runs are insertion
+     * sorted first. Doesn't copy keys, so it's better than radix when
+     * keys are mostly sorted already or there are few of them.
+     *
+     * @return permutation that sorts keys, keys are not changed
+     */
+    public static int[] mergeSort(int[] keys) {
+        int length = keys.length;
+        int[] src = identity(length);
+        for (int low = 0; low < length; low += RUN) {
+            int high = Math.min(low + RUN, length);
+            for (int i = low + 1; i < high; i++) {
+                int index = src[i];
+                int j = i - 1;
+                while (j >= low && keys[src[j]] > keys[index]) {
+                    src[j + 1] = src[j];
+                    j--;
+                }
+                src[j + 1] = index;
+            }
+        }
+
+        int[] dst = new int[length];
+        for (int width = RUN; width < length; width *= 2) {
+            for (int low = 0; low < length; low += 2 * width) {
+                int middle = Math.min(low + width, length);
+                int high = Math.min(low + 2 * width, length);
+                int left = low, right = middle, i = low;
+                while (left < middle && right < high) {
+                    dst[i++] = keys[src[left]] <= keys[src[right]] ? src[left++] : src[right++];
+                }
+                System.arraycopy(src, left, dst, i, middle - left);
+                i += middle - left;
+                System.arraycopy(src, right, dst, i, high - right);
+            }
+            int[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+        return src;
+    }
+
+    /**
+     * Same as {@link #mergeSort(int[])}, only for long keys.
+     *
+     * @return permutation that sorts keys, keys are not changed
+     */
+    public static int[] mergeSort(long[] keys) {
+        int length = keys.length;
+        int[] src = identity(length);
+        for (int low = 0; low < length; low += RUN) {
+            int high = Math.min(low + RUN, length);
+            for (int i = low + 1; i < high; i++) {
+                int index = src[i];
+                int j = i - 1;
+                while (j >= low && keys[src[j]] > keys[index]) {
+                    src[j + 1] = src[j];
+                    j--;
+                }
+                src[j + 1] = index;
+            }
+        }
+
+        int[] dst = new int[length];
+        for (int width = RUN; width < length; width *= 2) {
+            for (int low = 0; low < length; low += 2 * width) {
+                int middle = Math.min(low + width, length);
+                int high = Math.min(low + 2 * width, length);
+                int left = low, right = middle, i = low;
+                while (left < middle && right < high) {
+                    dst[i++] = keys[src[left]] <= keys[src[right]] ? src[left++] : src[right++];
+                }
+                System.arraycopy(src, left, dst, i, middle - left);
+                i += middle - left;
+                System.arraycopy(src, right, dst, i, high - right);
+            }
+            int[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+        return src;
+    }
+
+    /**
+     * Reorders every column in place, so that column[i] becomes
+     * what was column[perm[i]]. perm itself is not changed.
+     *
+     * @param perm    permutation of [0, n), for example from {@link #radixSort(int[])}
+     * @param columns any number of columns of length n
+     * @throws IllegalArgumentException if perm isn't a permutation,
+     *                                  or a column is of a different length
+     */
+    public static void applyPermutation(int[] perm, int[]... columns) {
+        for (int[] column : columns) {
+            checkLength(perm, column.length);
+        }
+        checkPermutation(perm);
+
+        for (int start = 0; start < perm.length; start++) {
+            if (perm[start] < 0) continue; // visited, cycle is done
+            for (int[] column : columns) {
+                int temp = column[start];
+                int i = start;
+                while (perm[i] != start) {
+                    column[i] = column[perm[i]];
+                    i = perm[i];
+                }
+                column[i] = temp;
+            }
+            markCycle(perm, start);
+        }
+        unmark(perm);
+    }
+
+    /**
+     * Same as {@link #applyPermutation(int[], int[]...)}, only for columns of longs.
+     */
+    public static void applyPermutation(int[] perm, long[]... columns) {
+        for (long[] column : columns) {
+            checkLength(perm, column.length);
+        }
+        checkPermutation(perm);
+
+        for (int start = 0; start < perm.length; start++) {
+            if (perm[start] < 0) continue;
+            for (long[] column : columns) {
+                long temp = column[start];
+                int i = start;
+                while (perm[i] != start) {
+                    column[i] = column[perm[i]];
+                    i = perm[i];
+                }
+                column[i] = temp;
+            }
+            markCycle(perm, start);
+        }
+        unmark(perm);
+    }
+
+    /**
+     * Same as {@link #applyPermutation(int[], int[]...)}, only for columns of doubles.
+     */
+    public static void applyPermutation(int[] perm, double[]... columns) {
+        for (double[] column : columns) {
+            checkLength(perm, column.length);
+        }
+        checkPermutation(perm);
+
+        for (int start = 0; start < perm.length; start++) {
+            if (perm[start] < 0) continue;
+            for (double[] column : columns) {
+                double temp = column[start];
+                int i = start;
+                while (perm[i] != start) {
+                    column[i] = column[perm[i]];
+                    i = perm[i];
+                }
+                column[i] = temp;
+            }
+            markCycle(perm, start);
+        }
+        unmark(perm);
+    }
+
+    private static void markCycle(int[] perm, int start) {
+        int i = start;
+        do {
+            int next = perm[i];
+            perm[i] = ~next;
+            i = next;
+        } while (i != start);
+    }
+
+    private static void unmark(int[] perm) {
+        for (int i = 0; i < perm.length; i++) {
+            perm[i] = ~perm[i];
+        }
+    }
+
+    /**
+     * Every value must be in [0, n) and seen once. "Value v was seen" is
+     * marked by flipping perm[v], so it takes no extra space. perm is
+     * the same as it was when this returns or throws.
+     */
+    private static void checkPermutation(int[] perm) {
+        for (int value : perm) {
+            if (value < 0 || value >= perm.length)
+                throw new IllegalArgumentException(value + " is out of the permutation");
+        }
+
+        int i = 0;
+        try {
+            for (; i < perm.length; i++) {
+                int value = perm[i] < 0 ? ~perm[i] : perm[i];
+                if (perm[value] < 0)
+                    throw new IllegalArgumentException(value + " is repeated in the permutation");
+                perm[value] = ~perm[value];
+            }
+        } finally {
+            // flipped are exactly the values of perm[0, i)
+            for (int j = 0; j < i; j++) {
+                int value = perm[j] < 0 ? ~perm[j] : perm[j];
+                perm[value] = ~perm[value];
+            }
+        }
+    }
+
+    private static void checkLength(int[] perm, int length) {
+        if (length != perm.length)
+            throw new IllegalArgumentException("Column length " + length
+                    + " is not the permutation length " + perm.length);
+    }
+
+    private static int[] identity(int length) {
+        int[] indices = new int[length];
+        for (int i = 0; i < length; i++) {
+            indices[i] = i;
+        }
+        return indices;
+    }
+
+    private static void prefixSum(int[] count) {
+        int carry = 0;
+        for (int d = 0; d < count.length; d++) {
+            int temp = count[d];
+            count[d] = carry;
+            carry += temp;
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package me.beresnev.algorithms.sorting;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * @author Ignat Beresnev
- * @version 1.0
+ * @version 1.1
  * @since 18.02.17
  */
 public class BubbleSort {
+    // stages of bitonic sort with fewer compare-exchanges than this aren't split between threads
+    private static final int PARALLEL_CHUNK = 1 << 13;
+    // arrays of a batch are handed to threads in groups of about this many elements
+    private static final int BATCH_CHUNK = 1 << 13;
 
     /**
      * Bubble sort
@@ -73,9 +80,238 @@ public class BubbleSort {
         }
     }
 
+    /**
+     * Odd-even transposition sort, bubble sort for parallel hardware.
+     * <p>
+     * Time complexity:
+     * - O(n^2) compare-exchanges, n phases at most
+     * <p>
+     * In bubble sort every swap depends on the previous one: the element
+     * that's being dragged to the right is only known after the last
+     * comparison. Here one pass is split into two phases. The even phase
+     * compares (0, 1), (2, 3), (4, 5)..., the odd one (1, 2), (3, 4)...
+     * Pairs of one phase don't overlap, so they can be done in any order,
+     * or all at once. After n phases the array is sorted (it's a sorting
+     * network), and if two phases in a row don't change anything, it's
+     * sorted already.
+     * <p>
+     * Compare-exchange is min/max without branches, and the inner loop
+     * is a plain strided loop, which the JIT can unroll and vectorize.
+     * It's not split between threads: n phases would mean n times waiting
+     * for all threads, see {@link #bitonicSort(int[], ForkJoinPool)} for that.
+     */
+    public static void oddEvenSort(int[] arr) {
+        int length = arr.length;
+        boolean previousChanged = true;
+        for (int phase = 0; phase < length; phase++) {
+            int changed = 0; // non-zero if any pair was swapped
+            for (int j = phase & 1; j + 1 < length; j += 2) {
+                int x = arr[j];
+                int y = arr[j + 1];
+                int min = Math.min(x, y);
+                arr[j] = min;
+                arr[j + 1] = Math.max(x, y);
+                changed |= x ^ min;
+            }
+            if (changed == 0 && !previousChanged) return;
+            previousChanged = changed != 0;
+        }
+    }
+
+    /**
+     * Bitonic sort
+     * <p>
+     * Time complexity:
+     * - O(n log^2 n) compare-exchanges in log n * (log n + 1) / 2 stages
+     * <p>
+     * Another sorting network, with a lot less stages than odd-even
+     * transposition. For every block size 2, 4, 8...: both halves of a block
+     * are sorted already, the first stage compares element i of the first
+     * half with its mirror in the second half (first with last, second with
+     * the one before last...). After that, every element of the first half
+     * is <= every element of the second, and both halves are bitonic (go up,
+     * then down). Then half cleaners sort them: compare i and i + d for
+     * d = block/4, block/8 ... 1.
+     * <p>
+     * Every compare-exchange puts the min to the lower index, so if the
+     * length isn't a power of 2, it works as if the array was padded with
+     * +infinity: pairs that go past the end would never swap, they're
+     * skipped.
+     * <p>
+     * Compare-exchanges of one stage don't depend on each other: the
+     * loops over them are plain loops over i and i + d.
+     */
+    public static void bitonicSort(int[] arr) {
+        bitonicSort(arr, null);
+    }
+
+    /**
+     * Same as {@link #bitonicSort(int[])}, only big stages are split between
+     * threads of the pool. Stages themselves go one after another, there
+     * are only log^2 n of them to wait for.
+     *
+     * @param pool pool to run the stages in, null to do everything in this thread
+     */
+    public static void bitonicSort(int[] arr, ForkJoinPool pool) {
+        long length = arr.length;
+        for (long half = 1; half < length; half <<= 1) {
+            runStage(arr, half, true, pool);
+            for (long distance = half >> 1; distance > 0; distance >>= 1) {
+                runStage(arr, distance, false, pool);
+            }
+        }
+    }
+
+    /**
+     * Sorts every array of the batch with {@link #oddEvenSort(int[])}.
+     * Arrays are independent, so they're split between threads of the pool,
+     * every thread takes a group of arrays and sorts them one by one.
+     */
+    public static void oddEvenSort(int[][] batch, ForkJoinPool pool) {
+        pool.invoke(new BatchTask(batch, 0, batch.length, false));
+    }
+
+    /**
+     * Same as {@link #oddEvenSort(int[][], ForkJoinPool)},
+     * only arrays are sorted with {@link #bitonicSort(int[])}.
+     */
+    public static void bitonicSort(int[][] batch, ForkJoinPool pool) {
+        pool.invoke(new BatchTask(batch, 0, batch.length, true));
+    }
+
+    private static void runStage(int[] arr, long half, boolean mirror, ForkJoinPool pool) {
+        long blocks = (arr.length + 2 * half - 1) / (2 * half);
+        long comparators = blocks * half;
+        if (pool == null || comparators <= PARALLEL_CHUNK) {
+            stage(arr, half, mirror, 0, comparators);
+        } else {
+            pool.invoke(new StageTask(arr, half, mirror, 0, comparators));
+        }
+    }
+
+    /**
+     * Compare-exchanges [from, to) of one stage. Blocks are 2 * half long,
+     * every block has half of them: k-th one compares base + k with
+     * base + half + k, or with base + 2 * half - 1 - k if it's the mirror
+     * stage. Bounds are long, so that 2 * half doesn't overflow, but once
+     * a pair is known to be inside of the array, it's ints.
+     */
+    private static void stage(int[] a, long half, boolean mirror, long from, long to) {
+        long length = a.length;
+        while (from < to) {
+            long block = from / half;
+            long base = block * 2 * half;
+            long first = from - block * half;
+            long last = Math.min(half, first + to - from); // [first, last) of this block
+            from += last - first;
+
+            if (mirror) {
+                first = Math.max(first, base + 2 * half - length); // mirror has to be < length
+                if (first >= last) continue;
+                int i = (int) (base + first);
+                int end = (int) (base + last);
+                for (int j = (int) (base + 2 * half - 1 - first); i < end; i++, j--) {
+                    compareExchange(a, i, j);
+                }
+            } else {
+                last = Math.min(last, length - base - half); // i + half has to be < length
+                if (first >= last) continue;
+                int distance = (int) half;
+                int end = (int) (base + last);
+                for (int i = (int) (base + first); i < end; i++) {
+                    compareExchange(a, i, i + distance);
+                }
+            }
+        }
+    }
+
+    /**
+     * Min goes to i, max goes to j, and no branches.
+     */
+    private static void compareExchange(int[] a, int i, int j) {
+        int x = a[i];
+        int y = a[j];
+        a[i] = Math.min(x, y);
+        a[j] = Math.max(x, y);
+    }
+
     private static void swap(int[] arr, int a, int b) {
         int temp = arr[a];
         arr[a] = arr[b];
         arr[b] = temp;
     }
+
+    /**
+     * Compare-exchanges [from, to) of one stage, split in halves
+     * until there are few enough of them for one thread.
+     */
+    private static class StageTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] arr;
+        private final long half;
+        private final boolean mirror;
+        private final long from;
+        private final long to;
+
+        StageTask(int[] arr, long half, boolean mirror, long from, long to) {
+            this.arr = arr;
+            this.half = half;
+            this.mirror = mirror;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_CHUNK) {
+                stage(arr, half, mirror, from, to);
+                return;
+            }
+            long middle = (from + to) >>> 1;
+            invokeAll(new StageTask(arr, half, mirror, from, middle),
+                    new StageTask(arr, half, mirror, middle, to));
+        }
+    }
+
+    /**
+     * Arrays [from, to) of a batch, split in halves until they're
+     * one array or few enough elements for one thread.
+     */
+    private static class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[][] batch;
+        private final int from;
+        private final int to;
+        private final boolean bitonic;
+
+        BatchTask(int[][] batch, int from, int to, boolean bitonic) {
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+            this.bitonic = bitonic;
+        }
+
+        @Override
+        protected void compute() {
+            long elements = 0;
+            for (int i = from; i < to; i++) {
+                elements += batch[i].length;
+            }
+            if (to - from <= 1 || elements <= BATCH_CHUNK) {
+                for (int i = from; i < to; i++) {
+                    if (bitonic) {
+                        bitonicSort(batch[i]);
+                    } else {
+                        oddEvenSort(batch[i]);
+                    }
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BatchTask(batch, from, middle, bitonic),
+                    new BatchTask(batch, middle, to, bitonic));
+        }
+    }
 }
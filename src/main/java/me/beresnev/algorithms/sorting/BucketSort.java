@@ -1,15 +1,28 @@
 package me.beresnev.algorithms.sorting;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * @author Ignat Beresnev
- * @version 1.0
+ * @version 1.4
  * @since 27.02.17.
  */
 public class BucketSort {
+    // how many elements we want to see in one bucket of the sample sort
+    private static final int ELEMENTS_PER_BUCKET = 16;
+    // sample size = buckets * oversampling. More samples - better splitters
+    private static final int OVERSAMPLING = 4;
+    // buckets are sorted in parallel by chunks of at least this many elements
+    private static final int PARALLEL_CHUNK = 1 << 13;
+    // objects are split into this many buckets per thread, so a thread
+    // that got an unlucky big bucket doesn't keep everyone waiting
+    private static final int BUCKETS_PER_THREAD = 4;
+    // there are few buckets of objects, and each one is big, so
+    // a bigger sample is cheap and makes them more even
+    private static final int OBJECT_OVERSAMPLING = 32;
 
     /**
      * Time complexity:
@@ -35,7 +48,7 @@ public class BucketSort {
      * element's value. Smaller elements are closer to the beginning,
      * bigger - closer to the end. Therefore, smallest elem - 1st bucket,
      * biggest element - last bucket. Then we iterate through the buckets
-     * and put all elements from it into the arraylist (one after another).
+     * and put all elements from it back into the array (one after another).
      * <p>
      * Implementations differ on the formula and on ways of
      * resolving collisions, since they have to be sorted as well.
@@ -46,16 +59,24 @@ public class BucketSort {
 
 
     /**
-     * General logic is the same. There are 2 differences:
-     * - To determine the bucket the "interval" variable is used, which takes
-     * min and max values (so we have to find them beforehand in a loop)
-     * - It adds values to the end of the bucket. Then, when it's time to
-     * iterate through that bucket, it does linkedList->Array, and sorts
-     * that array with insertion sort. In this case insertion sort is rather
+     * General logic is the same. There are a few differences:
+     * - To determine the bucket, value's offset from min value is scaled
+     * to the number of buckets, so we have to find min and max beforehand.
+     * - Buckets are not lists. First pass only counts how many elements go
+     * to every bucket. Prefix sum of counts gives us where every bucket starts
+     * in one flat array, and the second pass puts every element right there.
+     * Same as in counting sort, if it makes sense.
+     * - Every bucket is then a range of that flat array, and it's sorted
+     * in place with insertion sort. In this case insertion sort is rather
      * fast, since values within the bucket are very close value-wise.
-     * TODO: Try to improve interval and .toArray()
+     * <p>
+     * No boxing, no lists. Two int arrays: n for elements, n/2 for offsets.
+     *
+     * @see CountingSort#stableIntSort(int[], int) for the offsets trick
      */
     public static void sort(int[] arr) {
+        if (arr.length < 2) return;
+
         int minValue = arr[0];
         int maxValue = arr[0];
         for (int value : arr) {
@@ -64,27 +85,488 @@ public class BucketSort {
             else if (value > maxValue)
                 maxValue = value;
         }
+        if (minValue == maxValue) return; // all the same
 
-        int bucketsSize = arr.length / 2;
-        List<LinkedList<Integer>> buckets = new ArrayList<>(bucketsSize);
-        for (int i = 0; i < bucketsSize; i++) {
-            buckets.add(new LinkedList<Integer>());
+        int buckets = arr.length / 2;
+        long range = (long) maxValue - minValue + 1; // int might overflow
+        // offsets[b] - where bucket b starts, offsets[buckets] == arr.length
+        int[] offsets = new int[buckets + 1];
+        for (int value : arr) {
+            offsets[bucket(value, minValue, range, buckets) + 1]++;
+        }
+        for (int b = 0; b < buckets; b++) {
+            offsets[b + 1] += offsets[b];
         }
 
-        double interval = ((double) (maxValue - minValue + 1)) / buckets.size();
+        int[] out = new int[arr.length];
         for (int value : arr) {
-            buckets.get((int) ((value - minValue - 1) / interval)).add(value);
+            out[offsets[bucket(value, minValue, range, buckets)]++] = value;
+        }
+        // after scatter offsets[b] points at the start of b + 1, that is the end of b
+
+        int start = 0;
+        for (int b = 0; b < buckets; b++) {
+            sortBucket(out, start, offsets[b]);
+            start = offsets[b];
         }
+        System.arraycopy(out, 0, arr, 0, arr.length);
+    }
 
-        int arrIndex = 0;
-        for (LinkedList<Integer> currentBucket : buckets) {
-            Integer[] bucketArray = new Integer[currentBucket.size()];
-            bucketArray = currentBucket.toArray(bucketArray);
-            InsertionSort.comparableSort(bucketArray);
+    /**
+     * @return bucket for the value, 0 for min and buckets - 1 for max
+     */
+    private static int bucket(int value, int minValue, long range, int buckets) {
+        return (int) ((value - (long) minValue) * buckets / range);
+    }
+
+    /**
+     * Most buckets are tiny, those go to a sorting network,
+     * which doesn't branch on the values. The rest, to insertion sort.
+     */
+    private static void sortBucket(int[] arr, int from, int to) {
+        if (to - from <= SortingNetwork.MAX_LENGTH) {
+            SortingNetwork.sort(arr, from, to - from);
+        } else {
+            InsertionSort.sort(arr, from, to);
+        }
+    }
+
+    /**
+     * Same as {@link #sort(int[])}, only for doubles. Works best when values
+     * are uniformly distributed across [min, max], then every bucket
+     * gets ~2 elements and the whole sort is O(n).
+     * <p>
+     * The order is the same as in Double.compareTo: -0.0 goes before 0.0
+     * and NaNs go to the end. Infinities can't be put in a bucket, max - min
+     * would be infinite and every value would go to bucket 0, so they're moved
+     * to the ends as well. The rest is finite, but max - min can still
+     * overflow (something like -1e308 and 1e308), so buckets are computed
+     * from halves of the values, those never overflow.
+     *
+     * @see DoubleTotalOrder
+     */
+    public static void sort(double[] arr) {
+        int to = DoubleTotalOrder.moveNaNsToEnd(arr, 0, arr.length);
 
-            for (Integer value : bucketArray) {
-                arr[arrIndex++] = value;
+        // -infinity to the start, +infinity to the end, the same way
+        // quick sort partitions around a pivot
+        int from = 0;
+        int i = 0;
+        while (i < to) {
+            double value = arr[i];
+            if (value == Double.NEGATIVE_INFINITY) {
+                arr[i++] = arr[from];
+                arr[from++] = value;
+            } else if (value == Double.POSITIVE_INFINITY) {
+                arr[i] = arr[--to];
+                arr[to] = value;
+            } else {
+                i++;
             }
         }
+        if (to - from < 2) return;
+
+        double minValue = arr[from];
+        double maxValue = arr[from];
+        for (i = from + 1; i < to; i++) {
+            double value = arr[i];
+            if (value < minValue)
+                minValue = value;
+            else if (value > maxValue)
+                maxValue = value;
+        }
+
+        int negativeZeros = DoubleTotalOrder.replaceNegativeZeros(arr, from, to);
+        if (minValue != maxValue) {
+            sortBuckets(arr, from, to, minValue / 2, maxValue / 2 - minValue / 2);
+        }
+        DoubleTotalOrder.restoreNegativeZeros(arr, from, to, negativeZeros);
+    }
+
+    /**
+     * Sorts [from, to), all values there are finite
+     */
+    private static void sortBuckets(double[] arr, int from, int to, double halfMin, double halfRange) {
+        int buckets = (to - from) / 2;
+        int[] offsets = new int[buckets + 1];
+        for (int i = from; i < to; i++) {
+            offsets[bucket(arr[i], halfMin, halfRange, buckets) + 1]++;
+        }
+        for (int b = 0; b < buckets; b++) {
+            offsets[b + 1] += offsets[b];
+        }
+
+        double[] out = new double[to - from];
+        for (int i = from; i < to; i++) {
+            out[offsets[bucket(arr[i], halfMin, halfRange, buckets)]++] = arr[i];
+        }
+
+        int start = 0;
+        for (int b = 0; b < buckets; b++) {
+            InsertionSort.sort(out, start, offsets[b]);
+            start = offsets[b];
+        }
+        System.arraycopy(out, 0, arr, from, out.length);
+    }
+
+    /**
+     * max value would get bucket #buckets, so it's moved to the last one.
+     * halfRange can be 0 if min and max are the two smallest subnormals,
+     * then it's 0 / 0 or x / 0, and the cast turns those into 0 or int max.
+     */
+    private static int bucket(double value, double halfMin, double halfRange, int buckets) {
+        return Math.min(buckets - 1, (int) ((value / 2 - halfMin) / halfRange * buckets));
+    }
+
+    /**
+     * Bucket sort with buckets that adapt to the data (samplesort).
+     * <p>
+     * Equal-width intervals only work when values are uniform. If the
+     * data is skewed, say 90% of values are in [0, 10] and the rest is up
+     * to 10^9, almost everything goes to the first bucket, and insertion
+     * sort in it is O(n^2). Instead, we take a random sample of the input,
+     * sort it, and take every (sample / buckets)-th element of it as a
+     * bucket boundary (splitter). These are quantiles of the sample,
+     * so roughly the same number of elements of the whole input is between
+     * any two neighbouring splitters, however the values are distributed.
+     * <p>
+     * Bucket of an element is found by binary search over the splitters:
+     * number of splitters that are <= value. The rest is the same as in
+     * {@link #sort(int[])}: count, prefix sum, scatter, insertion sort.
+     * <p>
+     * Time complexity: O(n log b) for binary searches, buckets are ~16
+     * elements each, so they're sorted in O(n) total with high probability.
+     */
+    public static void sampleSort(int[] arr) {
+        sampleSort(arr, null);
+    }
+
+    /**
+     * Same as {@link #sampleSort(int[])}, but buckets are sorted in
+     * parallel. Buckets never overlap, so no locking is needed.
+     *
+     * @param pool pool to sort the buckets in, null to sort them in this thread
+     */
+    public static void sampleSort(int[] arr, ForkJoinPool pool) {
+        if (arr.length < 2) return;
+
+        int buckets = Math.max(1, arr.length / ELEMENTS_PER_BUCKET);
+        int[] splitters = splitters(arr, buckets);
+
+        int[] offsets = new int[buckets + 1];
+        for (int value : arr) {
+            offsets[bucket(splitters, value) + 1]++;
+        }
+        for (int b = 0; b < buckets; b++) {
+            offsets[b + 1] += offsets[b];
+        }
+        // keeping bucket starts, offsets are moved forward by the scatter
+        int[] starts = new int[buckets + 1];
+        System.arraycopy(offsets, 0, starts, 0, buckets + 1);
+
+        int[] out = new int[arr.length];
+        for (int value : arr) {
+            out[offsets[bucket(splitters, value)]++] = value;
+        }
+
+        if (pool == null) {
+            for (int b = 0; b < buckets; b++) {
+                sortBucket(out, starts[b], starts[b + 1]);
+            }
+        } else {
+            pool.invoke(new BucketsTask(out, starts, 0, buckets));
+        }
+        System.arraycopy(out, 0, arr, 0, arr.length);
+    }
+
+    /**
+     * Same as {@link #sampleSort(int[], ForkJoinPool)}, for objects, with
+     * every step done in parallel. Stable: equal elements keep their order.
+     * <p>
+     * Objects are much more expensive to compare than ints, so instead of
+     * small buckets sorted with insertion sort, there are p big buckets, a few
+     * per thread, and each one is sorted with {@link HybridSort}. p - 1
+     * splitters are picked from a sorted random sample, same as for ints.
+     * <p>
+     * Partitioning is done the same way {@link ParallelRadixSort} does one
+     * pass, only the "digit" of an element is its bucket:
+     * 1) The array is cut into slices, one per thread. Every thread finds
+     * the bucket of every element of its slice (binary search over the
+     * splitters, remembered so it's not done twice) and counts them.
+     * 2) Prefix sum over all counts, bucket by bucket and slice by slice
+     * inside of a bucket, gives every thread its own range in every bucket.
+     * 3) Every thread moves its slice into the buffer.
+     * Then buckets are sorted in parallel and copied back.
+     * <p>
+     * Time complexity: O(n log p) comparisons for partitioning and
+     * O((n/p) log (n/p)) per bucket, divided between threads.
+     * Space: O(n) for the buffer and remembered buckets.
+     *
+     * @param c    comparator that defines the order
+     * @param pool pool to run the threads in
+     */
+    public static <T> void sampleSort(T[] arr, Comparator<? super T> c, ForkJoinPool pool) {
+        int threads = Math.min(pool.getParallelism(), arr.length / PARALLEL_CHUNK);
+        if (threads < 2) {
+            HybridSort.sort(arr, c);
+            return;
+        }
+        pool.invoke(new ObjectSampleSortTask<>(arr, c, threads));
+    }
+
+    /**
+     * @return buckets - 1 sorted splitters, picked from a random sample of arr
+     */
+    private static int[] splitters(int[] arr, int buckets) {
+        Random random = new Random();
+        int[] sample = new int[(int) Math.min(arr.length, (long) buckets * OVERSAMPLING)];
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = arr[random.nextInt(arr.length)];
+        }
+        MergeSort.sortBottomUp(sample, new int[sample.length]);
+
+        int[] splitters = new int[buckets - 1];
+        for (int i = 0; i < splitters.length; i++) {
+            splitters[i] = sample[(int) ((long) (i + 1) * sample.length / buckets)];
+        }
+        return splitters;
+    }
+
+    /**
+     * Binary search for the first splitter that is > value
+     *
+     * @return number of splitters that are <= value, [0, splitters.length]
+     */
+    private static int bucket(int[] splitters, int value) {
+        int low = 0;
+        int high = splitters.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (splitters[mid] <= value)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * Sorts buckets [fromBucket, toBucket). Splits itself in two
+     * until there are not enough elements in it to bother.
+     */
+    private static class BucketsTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] arr;
+        private final int[] starts;
+        private final int fromBucket;
+        private final int toBucket;
+
+        BucketsTask(int[] arr, int[] starts, int fromBucket, int toBucket) {
+            this.arr = arr;
+            this.starts = starts;
+            this.fromBucket = fromBucket;
+            this.toBucket = toBucket;
+        }
+
+        @Override
+        protected void compute() {
+            int elements = starts[toBucket] - starts[fromBucket];
+            if (elements <= PARALLEL_CHUNK || toBucket - fromBucket < 2) {
+                for (int b = fromBucket; b < toBucket; b++) {
+                    sortBucket(arr, starts[b], starts[b + 1]);
+                }
+                return;
+            }
+            int mid = (fromBucket + toBucket) >>> 1;
+            invokeAll(new BucketsTask(arr, starts, fromBucket, mid),
+                    new BucketsTask(arr, starts, mid, toBucket));
+        }
+    }
+
+    /**
+     * All steps of {@link #sampleSort(Object[], Comparator, ForkJoinPool)}.
+     * Every step forks one task per slice or per group of buckets and
+     * waits for all of them before the next one starts.
+     */
+    private static class ObjectSampleSortTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] arr;
+        private final Comparator<? super T> c;
+        private final int threads;
+
+        ObjectSampleSortTask(T[] arr, Comparator<? super T> c, int threads) {
+            this.arr = arr;
+            this.c = c;
+            this.threads = threads;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void compute() {
+            int length = arr.length;
+            int buckets = threads * BUCKETS_PER_THREAD;
+            T[] splitters = splitters(buckets);
+
+            int[] bounds = new int[threads + 1];
+            for (int t = 0; t <= threads; t++) {
+                bounds[t] = (int) ((long) length * t / threads);
+            }
+            int[] bucketOf = new int[length];
+            int[][] counts = new int[threads][buckets];
+            RecursiveAction[] tasks = new RecursiveAction[threads];
+            for (int t = 0; t < threads; t++) { // 1
+                tasks[t] = new ClassifyTask<>(arr, splitters, c, bucketOf, bounds[t], bounds[t + 1], counts[t]);
+            }
+            invokeAll(tasks);
+
+            int[] starts = new int[buckets + 1]; // 2
+            int carry = 0;
+            for (int b = 0; b < buckets; b++) {
+                starts[b] = carry;
+                for (int t = 0; t < threads; t++) {
+                    int temp = counts[t][b];
+                    counts[t][b] = carry;
+                    carry += temp;
+                }
+            }
+            starts[buckets] = carry;
+
+            T[] out = (T[]) new Object[length];
+            for (int t = 0; t < threads; t++) { // 3
+                tasks[t] = new ObjectScatterTask<>(arr, out, bucketOf, bounds[t], bounds[t + 1], counts[t]);
+            }
+            invokeAll(tasks);
+
+            tasks = new RecursiveAction[buckets];
+            for (int b = 0; b < buckets; b++) {
+                tasks[b] = new ObjectBucketTask<>(out, arr, starts[b], starts[b + 1], c);
+            }
+            invokeAll(tasks);
+        }
+
+        /**
+         * @return buckets - 1 sorted splitters, picked from a random sample of arr
+         */
+        @SuppressWarnings("unchecked")
+        private T[] splitters(int buckets) {
+            Random random = new Random();
+            T[] sample = (T[]) new Object[(int) Math.min(arr.length, (long) buckets * OBJECT_OVERSAMPLING)];
+            for (int i = 0; i < sample.length; i++) {
+                sample[i] = arr[random.nextInt(arr.length)];
+            }
+            HybridSort.sort(sample, c);
+
+            T[] splitters = (T[]) new Object[buckets - 1];
+            for (int i = 0; i < splitters.length; i++) {
+                splitters[i] = sample[(int) ((long) (i + 1) * sample.length / buckets)];
+            }
+            return splitters;
+        }
+    }
+
+    /**
+     * Finds and counts buckets of arr[from, to).
+     */
+    private static class ClassifyTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] arr;
+        private final T[] splitters;
+        private final Comparator<? super T> c;
+        private final int[] bucketOf;
+        private final int from;
+        private final int to;
+        private final int[] count;
+
+        ClassifyTask(T[] arr, T[] splitters, Comparator<? super T> c, int[] bucketOf,
+                     int from, int to, int[] count) {
+            this.arr = arr;
+            this.splitters = splitters;
+            this.c = c;
+            this.bucketOf = bucketOf;
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+
+        /**
+         * Same binary search as {@link BucketSort#bucket(int[], int)}.
+         */
+        @Override
+        protected void compute() {
+            for (int i = from; i < to; i++) {
+                T value = arr[i];
+                int low = 0;
+                int high = splitters.length;
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (c.compare(splitters[mid], value) <= 0)
+                        low = mid + 1;
+                    else
+                        high = mid;
+                }
+                bucketOf[i] = low;
+                count[low]++;
+            }
+        }
+    }
+
+    /**
+     * Moves arr[from, to) into out, offsets are this slice's own.
+     */
+    private static class ObjectScatterTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] arr;
+        private final T[] out;
+        private final int[] bucketOf;
+        private final int from;
+        private final int to;
+        private final int[] offset;
+
+        ObjectScatterTask(T[] arr, T[] out, int[] bucketOf, int from, int to, int[] offset) {
+            this.arr = arr;
+            this.out = out;
+            this.bucketOf = bucketOf;
+            this.from = from;
+            this.to = to;
+            this.offset = offset;
+        }
+
+        @Override
+        protected void compute() {
+            for (int i = from; i < to; i++) {
+                out[offset[bucketOf[i]]++] = arr[i];
+            }
+        }
+    }
+
+    /**
+     * Sorts one bucket [from, to) of out and copies it back into arr.
+     */
+    private static class ObjectBucketTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] out;
+        private final T[] arr;
+        private final int from;
+        private final int to;
+        private final Comparator<? super T> c;
+
+        ObjectBucketTask(T[] out, T[] arr, int from, int to, Comparator<? super T> c) {
+            this.out = out;
+            this.arr = arr;
+            this.from = from;
+            this.to = to;
+            this.c = c;
+        }
+
+        @Override
+        protected void compute() {
+            HybridSort.sort(out, from, to, c);
+            System.arraycopy(out, from, arr, from, to - from);
+        }
     }
 }
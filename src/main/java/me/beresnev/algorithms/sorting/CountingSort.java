@@ -1,11 +1,26 @@
 package me.beresnev.algorithms.sorting;
 
+import java.lang.reflect.Array;
+import java.util.function.ToIntFunction;
+
 /**
  * @author Ignat Beresnev
- * @version 1.1
+ * @version 1.4
  * @since 25.02.17.
  */
 public class CountingSort {
+    /**
+     * Counting is cheaper than radix sort while there are at most this
+     * many counters per element. With a wider range most of counters
+     * would be 0, and we'd spend more time walking them than sorting.
+     */
+    private static final int MAX_COUNTERS_PER_ELEMENT = 4;
+    /**
+     * Never more counters than this (16 MB of them), however big the array.
+     * Without it, a big enough array could ask for a frequency array that
+     * doesn't fit in an int index, or in memory. Radix sort does fine there.
+     */
+    static final int MAX_COUNTERS = 1 << 22;
 
     /**
      * Counting Sort
@@ -127,6 +142,204 @@ public class CountingSort {
         return out;
     }
 
+    /**
+     * Same as {@link #simpleSort(int[], int)}, but there's no need to know
+     * the max value, and negative numbers are fine. Min and max are found
+     * in one pass, and the counter for value v is frequency[v - min], so
+     * only max - min + 1 counters are needed, however far from 0 the values are.
+     * <p>
+     * If the range is too wide compared to the size of the array
+     * (say, 10 elements between 0 and 10^9), counting doesn't pay off,
+     * and the array is sorted with radix sort instead. Same if the range
+     * is wider than {@link #MAX_COUNTERS}, whatever the size of the array.
+     *
+     * @see RadixSort#lsdSortBytes(int[])
+     */
+    public static void simpleSort(int[] arr) {
+        if (arr.length < 2)
+            return;
+
+        int minValue = arr[0];
+        int maxValue = arr[0];
+        for (int value : arr) {
+            if (value < minValue)
+                minValue = value;
+            else if (value > maxValue)
+                maxValue = value;
+        }
+        if (!isRangeCountable(minValue, maxValue, arr.length)) {
+            RadixSort.lsdSortBytes(arr);
+            return;
+        }
+
+        int[] frequency = new int[maxValue - minValue + 1];
+        for (int value : arr) {
+            frequency[value - minValue]++;
+        }
+
+        int b = 0;
+        for (int i = 0; i < frequency.length; i++) {
+            for (int j = 0; j < frequency[i]; j++) {
+                arr[b++] = i + minValue;
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #simpleSort(int[])}, only for longs. Values can be
+     * as far apart as they want, but they are counted only if max - min
+     * is small, with the same limits as ints, otherwise it's radix sort.
+     *
+     * @see RadixSort#lsdSortBytes(long[])
+     */
+    public static void simpleSort(long[] arr) {
+        if (arr.length < 2)
+            return;
+
+        long minValue = arr[0];
+        long maxValue = arr[0];
+        for (long value : arr) {
+            if (value < minValue)
+                minValue = value;
+            else if (value > maxValue)
+                maxValue = value;
+        }
+        // overflows and becomes negative if min and max are further than Long.MAX_VALUE apart
+        long range = maxValue - minValue + 1;
+        if (range <= 0 || !isRangeCountable(range, arr.length)) {
+            RadixSort.lsdSortBytes(arr);
+            return;
+        }
+
+        int[] frequency = new int[(int) range];
+        for (long value : arr) {
+            frequency[(int) (value - minValue)]++;
+        }
+
+        int b = 0;
+        for (int i = 0; i < frequency.length; i++) {
+            for (int j = 0; j < frequency[i]; j++) {
+                arr[b++] = i + minValue;
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #simpleSort(int[])}, only for shorts. There are only
+     * 65536 of them, so short arrays over a narrow range are counted, the
+     * rest go to radix sort.
+     *
+     * @see RadixSort#lsdSortBytes(short[])
+     */
+    public static void simpleSort(short[] arr) {
+        if (arr.length < 2)
+            return;
+
+        int minValue = arr[0];
+        int maxValue = arr[0];
+        for (short value : arr) {
+            if (value < minValue)
+                minValue = value;
+            else if (value > maxValue)
+                maxValue = value;
+        }
+        if (!isRangeCountable(minValue, maxValue, arr.length)) {
+            RadixSort.lsdSortBytes(arr);
+            return;
+        }
+
+        int[] frequency = new int[maxValue - minValue + 1];
+        for (short value : arr) {
+            frequency[value - minValue]++;
+        }
+
+        int b = 0;
+        for (int i = 0; i < frequency.length; i++) {
+            for (int j = 0; j < frequency[i]; j++) {
+                arr[b++] = (short) (i + minValue);
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #simpleSort(int[])}, only for bytes. 256
+     * counters is nothing, so bytes are always counted.
+     */
+    public static void simpleSort(byte[] arr) {
+        if (arr.length < 2)
+            return;
+
+        int[] frequency = new int[256];
+        for (byte value : arr) {
+            frequency[value - Byte.MIN_VALUE]++;
+        }
+
+        int b = 0;
+        for (int i = 0; i < frequency.length; i++) {
+            for (int j = 0; j < frequency[i]; j++) {
+                arr[b++] = (byte) (i + Byte.MIN_VALUE);
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #stableIntSort(int[], int)}, with the offset
+     * and the fallback from {@link #simpleSort(int[])}.
+     *
+     * @return new sorted array, arr is not changed
+     */
+    public static int[] stableIntSort(int[] arr) {
+        if (arr.length < 2)
+            return arr;
+
+        int minValue = arr[0];
+        int maxValue = arr[0];
+        for (int value : arr) {
+            if (value < minValue)
+                minValue = value;
+            else if (value > maxValue)
+                maxValue = value;
+        }
+        int[] out = new int[arr.length];
+        if (!isRangeCountable(minValue, maxValue, arr.length)) {
+            System.arraycopy(arr, 0, out, 0, arr.length);
+            RadixSort.lsdSortBytes(out);
+            return out;
+        }
+
+        int[] pos = new int[maxValue - minValue + 1];
+        for (int value : arr) {
+            pos[value - minValue]++;
+        }
+
+        int counter = 0;
+        for (int i = 0; i < pos.length; i++) {
+            int temp = pos[i];
+            pos[i] = counter;
+            counter += temp;
+        }
+
+        for (int value : arr) {
+            out[pos[value - minValue]++] = value;
+        }
+        return out;
+    }
+
+    /**
+     * max - min may not fit in int (MIN_VALUE and MAX_VALUE), hence long.
+     */
+    private static boolean isRangeCountable(int minValue, int maxValue, int length) {
+        return isRangeCountable((long) maxValue - minValue + 1, length);
+    }
+
+    /**
+     * @param range max - min + 1
+     * @return true if counting length elements over the range is cheaper than radix sort
+     */
+    static boolean isRangeCountable(long range, int length) {
+        return range <= MAX_COUNTERS && range <= (long) length * MAX_COUNTERS_PER_ELEMENT + 256;
+    }
+
     /**
      * Same as method above, only here the code is clean and it demonstrates
      * the object sorting by key. Now, key can be whatever. It can be a
@@ -135,6 +348,7 @@ public class CountingSort {
      * @param max value of the biggest element in that array
      * @throws IllegalArgumentException if it gets a negative number
      * @return new sorted array
+     * @see #stableSort(Object[], ToIntFunction, int) for any class
      */
     public static SomeObject[] stableObjectSort(SomeObject[] arr, int max) {
         if (arr.length < 2)
@@ -142,25 +356,106 @@ public class CountingSort {
         if (max < 1) // if it's 0 or negative, we can't sort.
             throw new IllegalArgumentException("Max number is too low");
 
-        SomeObject[] out = new SomeObject[arr.length];
-        int[] pos = new int[max + 1];
+        return stableSort(arr, obj -> obj.key, max);
+    }
+
+    /**
+     * Stable counting sort of any objects by an int key, which is taken
+     * from the object by the key function. Same logic as
+     * {@link #stableIntSort(int[], int)}: count keys, prefix sum gives
+     * the first index of every key in the output, then every object is
+     * moved once, straight into its place.
+     * <p>
+     * Good for grouping a lot of records by a small key (partition, shard),
+     * O(n + maxKey) time, key function is called twice per object.
+     *
+     * @param key    key of an object, has to be in [0, maxKey]
+     * @param maxKey the biggest key there can be
+     * @return new sorted array, arr is not changed
+     * @throws IllegalArgumentException if maxKey or some key is out of range
+     */
+    public static <T> T[] stableSort(T[] arr, ToIntFunction<? super T> key, int maxKey) {
+        int[] pos = positions(arr, key, maxKey);
+
+        @SuppressWarnings("unchecked")
+        T[] out = (T[]) Array.newInstance(arr.getClass().getComponentType(), arr.length);
+        for (T obj : arr) {
+            out[pos[key.applyAsInt(obj)]++] = obj;
+        }
+        return out;
+    }
+
+    /**
+     * Same as {@link #stableSort(Object[], ToIntFunction, int)}, only nothing
+     * is moved. Instead, it returns the permutation: perm[i] is the index
+     * in arr of the object that would be i-th in the sorted array. It can
+     * be used to reorder any other arrays that are "columns" of the same rows.
+     *
+     * @return permutation of indexes of arr, sorted by key
+     * @throws IllegalArgumentException if maxKey or some key is out of range
+     */
+    public static <T> int[] stablePermutation(T[] arr, ToIntFunction<? super T> key, int maxKey) {
+        int[] pos = positions(arr, key, maxKey);
+
+        int[] perm = new int[arr.length];
+        for (int i = 0; i < arr.length; i++) {
+            perm[pos[key.applyAsInt(arr[i])]++] = i;
+        }
+        return perm;
+    }
 
-        for (SomeObject obj : arr) {
-            if (obj.key < 0) throw new IllegalArgumentException("Only positive numbers");
-            pos[obj.key]++;
+    /**
+     * Same as {@link #stablePermutation(Object[], ToIntFunction, int)},
+     * for when the keys are already a column of their own.
+     *
+     * @param keys keys of the rows, each in [0, maxKey]
+     * @return permutation of indexes of keys, sorted by key
+     * @throws IllegalArgumentException if maxKey or some key is out of range
+     */
+    public static int[] stablePermutation(int[] keys, int maxKey) {
+        if (maxKey < 0)
+            throw new IllegalArgumentException("Max key is too low");
+
+        int[] pos = new int[maxKey + 1];
+        for (int key : keys) {
+            if (key < 0 || key > maxKey)
+                throw new IllegalArgumentException("Key " + key + " is out of range");
+            pos[key]++;
+        }
+        prefixSum(pos);
+
+        int[] perm = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            perm[pos[keys[i]]++] = i;
         }
+        return perm;
+    }
 
+    /**
+     * Counts keys and turns the counters into first indexes in the output.
+     */
+    private static <T> int[] positions(T[] arr, ToIntFunction<? super T> key, int maxKey) {
+        if (maxKey < 0)
+            throw new IllegalArgumentException("Max key is too low");
+
+        int[] pos = new int[maxKey + 1];
+        for (T obj : arr) {
+            int k = key.applyAsInt(obj);
+            if (k < 0 || k > maxKey)
+                throw new IllegalArgumentException("Key " + k + " is out of range");
+            pos[k]++;
+        }
+        prefixSum(pos);
+        return pos;
+    }
+
+    private static void prefixSum(int[] pos) {
         int carry = 0;
         for (int i = 0; i < pos.length; i++) {
             int temp = pos[i];
             pos[i] = carry;
             carry += temp;
         }
-        for (SomeObject obj : arr) {
-            out[pos[obj.key]] = obj;
-            pos[obj.key]++;
-        }
-        return out;
     }
 
     /**
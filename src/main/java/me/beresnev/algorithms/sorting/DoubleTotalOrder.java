@@ -0,0 +1,74 @@
+package me.beresnev.algorithms.sorting;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.0
+ * @since 18.10.26.
+ */
+final class DoubleTotalOrder {
+
+    /**
+     * Doubles have two things that don't work with < and ==: NaN is not
+     * equal even to itself (and not < or > than anything), and -0.0 == 0.0.
+     * Sorts that compare doubles with < would leave NaNs and zeros wherever.
+     * We want the same order as Double.compareTo: -0.0 before 0.0, NaNs at
+     * the end. Instead of comparing with Double.compare every time, which
+     * is slow, sorts do this:
+     * 1) Move all NaNs to the end and leave them there.
+     * 2) Replace every -0.0 with 0.0, remember how many there were.
+     * 3) Sort the rest with plain < and >.
+     * 4) All zeros are next to each other now, so turn the first of them back into -0.0.
+     */
+    private DoubleTotalOrder() {
+    }
+
+    /**
+     * @return end of the part without NaNs, [from, end)
+     */
+    static int moveNaNsToEnd(double[] arr, int from, int to) {
+        int end = to;
+        for (int i = to - 1; i >= from; i--) {
+            double value = arr[i];
+            if (value != value) { // only NaN isn't equal to itself
+                arr[i] = arr[--end];
+                arr[end] = value;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * @return how many -0.0 were replaced with 0.0
+     */
+    static int replaceNegativeZeros(double[] arr, int from, int to) {
+        int negativeZeros = 0;
+        for (int i = from; i < to; i++) {
+            if (arr[i] == 0.0d && Double.doubleToRawLongBits(arr[i]) < 0) {
+                arr[i] = 0.0d;
+                negativeZeros++;
+            }
+        }
+        return negativeZeros;
+    }
+
+    /**
+     * Binary search for the first zero in sorted [from, to),
+     * and the first negativeZeros of them become -0.0 again.
+     */
+    static void restoreNegativeZeros(double[] arr, int from, int to, int negativeZeros) {
+        if (negativeZeros == 0) return;
+
+        int low = from;
+        int high = to - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (arr[mid] < 0.0d)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        for (int i = 0; i < negativeZeros; i++) {
+            arr[low + i] = -0.0d;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package me.beresnev.algorithms.sorting;
+
+import java.util.Arrays;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.0
+ * @since 18.10.26.
+ */
+public class DynamicTopologicalOrder {
+    private int vertexCount;
+    private int edgeCount;
+
+    private int[] order = new int[16];    // order[i] - vertex at position i
+    private int[] position = new int[16]; // position[v] - where v is in the order
+
+    private int[][] successors = new int[16][];
+    private int[][] predecessors = new int[16][];
+    private int[] outDegree = new int[16];
+    private int[] inDegree = new int[16];
+
+    // v is visited by the current search if mark[v] == stamp
+    private int[] mark = new int[16];
+    private int stamp;
+    private int[] parent = new int[16];
+    private int[] found = new int[16]; // vertices found by the last search
+
+    /**
+     * Topological order that is kept up to date while edges are added
+     * (Pearce-Kelly)
+     * <p>
+     * Time complexity:
+     * - addEdge: O(1) if the edge agrees with the order already,
+     * otherwise O(|affected| log |affected|) + their edges
+     * - snapshot: O(V), getPosition: O(1)
+     * <p>
+     * Space complexity:
+     * - O(V + E)
+     * <p>
+     * Every vertex has a position in the order. New edge x -> y is either
+     * fine as it is (x is before y already), or x is after y. In the second
+     * case only the vertices with positions between y and x can be out of
+     * order, nothing outside of [position(y), position(x)] has to move.
+     * <p>
+     * Inside of that region, we find everything reachable from y (forward
+     * search, F) and everything that reaches x (backward search, B). If
+     * the forward search gets to x, there's a path y -> ... -> x, and with
+     * the new edge it would be a cycle, so the edge is rejected. Otherwise,
+     * B must go before F. We take the positions that B and F had, sort
+     * them, and give the first ones to B and the rest to F, keeping the
+     * order inside of B and inside of F. Everything else stays where it is.
+     * <p>
+     * Searches are iterative, so long paths don't overflow the stack.
+     *
+     * @param vertexCount number of vertices to start with, they're 0 ... vertexCount - 1
+     * @see TopologicalSort#levels(me.beresnev.datastructures.DirectedGraph)
+     */
+    public DynamicTopologicalOrder(int vertexCount) {
+        if (vertexCount < 0)
+            throw new IllegalArgumentException("Negative number of vertices");
+        for (int i = 0; i < vertexCount; i++) {
+            addVertex();
+        }
+    }
+
+    /**
+     * New vertex has no edges, it goes to the end of the order.
+     *
+     * @return the new vertex
+     */
+    public int addVertex() {
+        int v = vertexCount;
+        if (v == order.length) {
+            int capacity = v * 2;
+            order = Arrays.copyOf(order, capacity);
+            position = Arrays.copyOf(position, capacity);
+            successors = Arrays.copyOf(successors, capacity);
+            predecessors = Arrays.copyOf(predecessors, capacity);
+            outDegree = Arrays.copyOf(outDegree, capacity);
+            inDegree = Arrays.copyOf(inDegree, capacity);
+            mark = Arrays.copyOf(mark, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+        }
+        order[v] = v;
+        position[v] = v;
+        vertexCount++;
+        return v;
+    }
+
+    /**
+     * Adds edge from -> to and moves whatever has to be moved so that
+     * from goes before to. If the edge would make a cycle, the edge is not
+     * added, the graph and the order stay as they were.
+     *
+     * @throws TopologicalSort.CycleException if there's a path from to to from already
+     * @throws IllegalArgumentException       if either vertex is not in the graph
+     */
+    public void addEdge(int from, int to) {
+        checkVertex(from);
+        checkVertex(to);
+        if (from == to)
+            throw new TopologicalSort.CycleException("Edge " + from + " -> " + to
+                    + " would make a cycle", new int[]{from});
+
+        int lowerBound = position[to];
+        int upperBound = position[from];
+        if (lowerBound < upperBound) {
+            nextStamp();
+            int forwardSize = searchForward(to, from, upperBound);
+            int[] forward = Arrays.copyOf(found, forwardSize);
+            int backwardSize = searchBackward(from, lowerBound);
+            int[] backward = Arrays.copyOf(found, backwardSize);
+            reorder(backward, forward);
+        }
+
+        successors[from] = append(successors[from], outDegree[from]++, to);
+        predecessors[to] = append(predecessors[to], inDegree[to]++, from);
+        edgeCount++;
+    }
+
+    /**
+     * @return where v is in the current order, 0 is the first
+     */
+    public int getPosition(int v) {
+        checkVertex(v);
+        return position[v];
+    }
+
+    /**
+     * @return copy of the current order, every edge goes from left to right.
+     * Later changes don't affect it
+     */
+    public int[] snapshot() {
+        return Arrays.copyOf(order, vertexCount);
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Everything reachable from start with position < upperBound.
+     * The vertex at upperBound is the one the new edge goes from,
+     * reaching it means a cycle.
+     *
+     * @return number of found vertices, they're in found[0, size)
+     */
+    private int searchForward(int start, int target, int upperBound) {
+        int size = 0; // found[next, size) - found, but not expanded yet
+        found[size++] = start;
+        mark[start] = stamp;
+        parent[start] = -1;
+        for (int next = 0; next < size; next++) {
+            int v = found[next];
+            for (int i = 0; i < outDegree[v]; i++) {
+                int w = successors[v][i];
+                if (w == target)
+                    throw new TopologicalSort.CycleException("Edge " + target + " -> " + start
+                            + " would make a cycle", path(v, target));
+                if (mark[w] != stamp && position[w] < upperBound) {
+                    mark[w] = stamp;
+                    parent[w] = v;
+                    found = append(found, size++, w);
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Everything that reaches start with position > lowerBound.
+     *
+     * @return number of found vertices, they're in found[0, size)
+     */
+    private int searchBackward(int start, int lowerBound) {
+        int size = 0;
+        found[size++] = start;
+        mark[start] = stamp;
+        for (int next = 0; next < size; next++) {
+            int v = found[next];
+            for (int i = 0; i < inDegree[v]; i++) {
+                int w = predecessors[v][i];
+                if (mark[w] != stamp && position[w] > lowerBound) {
+                    mark[w] = stamp;
+                    found = append(found, size++, w);
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Backward vertices take the smallest of all their positions,
+     * forward ones take the rest. Both keep their relative order.
+     */
+    private void reorder(int[] backward, int[] forward) {
+        toSortedPositions(backward);
+        toSortedPositions(forward);
+
+        int[] vertices = new int[backward.length + forward.length];
+        for (int i = 0; i < backward.length; i++) {
+            vertices[i] = order[backward[i]];
+        }
+        for (int i = 0; i < forward.length; i++) {
+            vertices[backward.length + i] = order[forward[i]];
+        }
+
+        int[] positions = new int[vertices.length];
+        System.arraycopy(backward, 0, positions, 0, backward.length);
+        System.arraycopy(forward, 0, positions, backward.length, forward.length);
+        QuickSort.sort(positions);
+
+        for (int i = 0; i < vertices.length; i++) {
+            order[positions[i]] = vertices[i];
+            position[vertices[i]] = positions[i];
+        }
+    }
+
+    private void toSortedPositions(int[] vertices) {
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = position[vertices[i]];
+        }
+        QuickSort.sort(vertices);
+    }
+
+    /**
+     * Path found by the forward search from its start to v, then target.
+     */
+    private int[] path(int v, int target) {
+        int length = 2;
+        for (int u = v; parent[u] != -1; u = parent[u]) {
+            length++;
+        }
+        int[] path = new int[length];
+        path[length - 1] = target;
+        int i = length - 2;
+        for (int u = v; u != -1; u = parent[u]) {
+            path[i--] = u;
+        }
+        return path;
+    }
+
+    private void nextStamp() {
+        if (++stamp == Integer.MAX_VALUE) { // so old marks don't look like new ones
+            Arrays.fill(mark, 0);
+            stamp = 1;
+        }
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= vertexCount)
+            throw new IllegalArgumentException("No vertex " + v + " in the graph");
+    }
+
+    private static int[] append(int[] items, int size, int value) {
+        if (items == null) {
+            items = new int[4];
+        } else if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+        }
+        items[size] = value;
+        return items;
+    }
+}
@@ -0,0 +1,345 @@
+package me.beresnev.algorithms.sorting;
+
+import me.beresnev.datastructures.trees.MinHeap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.1
+ * @since 18.10.26.
+ */
+public class ExternalMergeSort {
+    private static final int INT_WIDTH = 4;
+    private static final int LONG_WIDTH = 8;
+
+    private static final int MIN_BUFFER_SIZE = 1 << 10;
+    private static final int MAX_BUFFER_SIZE = 1 << 16;
+    // every run being merged is an open file, don't want to run out of descriptors
+    private static final int MAX_FAN_IN = 512;
+
+    /**
+     * External merge sort
+     * <p>
+     * Time complexity:
+     * - O(n log n) comparisons
+     * - O(n * passes) IO, passes = 1 + log k(#runs), k - fan-in
+     * <p>
+     * Space complexity:
+     * - O(memoryBudget) memory, O(n) disk for temp runs
+     * <p>
+     * For when the data doesn't fit in memory. Same idea as merge sort,
+     * only the recursion tree is very flat. First, we read the input
+     * file by chunks that do fit in memory (memory budget), sort each
+     * chunk with the usual in-memory merge sort and write it to a temp
+     * file, called a run. Then we merge all the runs at once: every run
+     * has a cursor that points at its smallest not yet merged element,
+     * cursors are kept in a min heap, so the root always points at the
+     * smallest element of all runs. We write it, move that cursor one
+     * element forward, and put it back in the heap. Repeat until all
+     * cursors are exhausted.
+     * <p>
+     * Each cursor needs a read buffer, so if there are too many runs for
+     * the budget, they are merged in groups into bigger runs first.
+     * <p>
+     * Files are plain binary: big-endian ints or longs one after another,
+     * the same format DataOutputStream writes.
+     */
+    private ExternalMergeSort() {
+    }
+
+    /**
+     * Sorts a binary file of ints.
+     *
+     * @param in                file to sort, isn't changed
+     * @param out               file to write sorted ints to, overwritten if exists
+     * @param memoryBudgetBytes roughly how much heap the sort is allowed to use
+     * @throws IllegalArgumentException if budget is too low or in isn't a file of ints
+     */
+    public static void sort(Path in, Path out, long memoryBudgetBytes) throws IOException {
+        sort(in, out, memoryBudgetBytes, INT_WIDTH);
+    }
+
+    /**
+     * Same as {@link #sort(Path, Path, long)}, only for a binary file of longs.
+     */
+    public static void sortLongs(Path in, Path out, long memoryBudgetBytes) throws IOException {
+        sort(in, out, memoryBudgetBytes, LONG_WIDTH);
+    }
+
+    private static void sort(Path in, Path out, long memoryBudgetBytes, int width) throws IOException {
+        if (memoryBudgetBytes < 3 * MIN_BUFFER_SIZE)
+            throw new IllegalArgumentException("Memory budget is too low");
+        if (Files.size(in) % width != 0)
+            throw new IllegalArgumentException("File size is not a multiple of " + width + " bytes");
+
+        List<Path> tempFiles = new ArrayList<>();
+        try {
+            List<Path> runs = width == INT_WIDTH
+                    ? createIntRuns(in, memoryBudgetBytes, tempFiles)
+                    : createLongRuns(in, memoryBudgetBytes, tempFiles);
+
+            // each run needs its own buffer + one buffer for the output
+            int fanIn = (int) Math.min(MAX_FAN_IN, memoryBudgetBytes / MIN_BUFFER_SIZE - 1);
+            while (runs.size() > fanIn) {
+                List<Path> merged = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += fanIn) {
+                    Path run = createTempFile(tempFiles);
+                    List<Path> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+                    merge(group, run, memoryBudgetBytes, width);
+                    merged.add(run);
+                }
+                runs = merged;
+            }
+            merge(runs, out, memoryBudgetBytes, width);
+        } finally {
+            for (Path file : tempFiles) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Reads the input by chunks of ints, sorts every chunk with
+     * {@link MergeSort#sortBottomUp(int[], int[])} and writes it to its own
+     * temp file. Run and scratch arrays are allocated once for all chunks.
+     *
+     * @return temp files with sorted runs, in the order they were created
+     */
+    private static List<Path> createIntRuns(Path in, long memoryBudgetBytes,
+                                            List<Path> tempFiles) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(bufferSize(memoryBudgetBytes / 4, INT_WIDTH));
+        int runLength = runLength(in, memoryBudgetBytes - buffer.capacity(), INT_WIDTH);
+        int[] run = new int[runLength];
+        int[] scratch = new int[runLength];
+
+        List<Path> runs = new ArrayList<>();
+        try (FileChannel input = FileChannel.open(in, StandardOpenOption.READ)) {
+            int count;
+            while ((count = readInts(input, buffer, run)) > 0) {
+                if (count < run.length) { // last one, it's shorter
+                    run = Arrays.copyOf(run, count);
+                }
+                MergeSort.sortBottomUp(run, scratch);
+
+                Path file = createTempFile(tempFiles);
+                try (FileChannel output = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    buffer.clear();
+                    for (int value : run) {
+                        if (!buffer.hasRemaining()) drain(output, buffer);
+                        buffer.putInt(value);
+                    }
+                    drain(output, buffer);
+                }
+                runs.add(file);
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * Same as {@link #createIntRuns(Path, long, List)}, only for longs.
+     */
+    private static List<Path> createLongRuns(Path in, long memoryBudgetBytes,
+                                             List<Path> tempFiles) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(bufferSize(memoryBudgetBytes / 4, LONG_WIDTH));
+        int runLength = runLength(in, memoryBudgetBytes - buffer.capacity(), LONG_WIDTH);
+        long[] run = new long[runLength];
+        long[] scratch = new long[runLength];
+
+        List<Path> runs = new ArrayList<>();
+        try (FileChannel input = FileChannel.open(in, StandardOpenOption.READ)) {
+            int count;
+            while ((count = readLongs(input, buffer, run)) > 0) {
+                if (count < run.length) {
+                    run = Arrays.copyOf(run, count);
+                }
+                MergeSort.sortBottomUp(run, scratch);
+
+                Path file = createTempFile(tempFiles);
+                try (FileChannel output = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    buffer.clear();
+                    for (long value : run) {
+                        if (!buffer.hasRemaining()) drain(output, buffer);
+                        buffer.putLong(value);
+                    }
+                    drain(output, buffer);
+                }
+                runs.add(file);
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * @return number of ints read into run, 0 if input is exhausted
+     */
+    private static int readInts(FileChannel input, ByteBuffer buffer, int[] run) throws IOException {
+        int count = 0;
+        while (count < run.length) {
+            buffer.clear();
+            buffer.limit(Math.min(buffer.capacity(), (run.length - count) * INT_WIDTH));
+            if (fill(input, buffer) == 0) break;
+            while (buffer.hasRemaining()) {
+                run[count++] = buffer.getInt();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return number of longs read into run, 0 if input is exhausted
+     */
+    private static int readLongs(FileChannel input, ByteBuffer buffer, long[] run) throws IOException {
+        int count = 0;
+        while (count < run.length) {
+            buffer.clear();
+            buffer.limit(Math.min(buffer.capacity(), (run.length - count) * LONG_WIDTH));
+            if (fill(input, buffer) == 0) break;
+            while (buffer.hasRemaining()) {
+                run[count++] = buffer.getLong();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * k-way merge of sorted runs into out. The budget is split evenly
+     * between the cursors' buffers and the output buffer.
+     */
+    private static void merge(List<Path> runs, Path out, long memoryBudgetBytes, int width) throws IOException {
+        int bufferSize = bufferSize(memoryBudgetBytes / (runs.size() + 1), width);
+        MinHeap<RunCursor> heap = new MinHeap<>();
+        List<RunCursor> cursors = new ArrayList<>(runs.size());
+
+        try (FileChannel output = FileChannel.open(out, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Path run : runs) {
+                RunCursor cursor = new RunCursor(run, bufferSize, width);
+                cursors.add(cursor);
+                if (cursor.next()) heap.add(cursor);
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+            while (!heap.isEmpty()) {
+                RunCursor smallest = heap.examine();
+                if (!buffer.hasRemaining()) drain(output, buffer);
+                if (width == INT_WIDTH) {
+                    buffer.putInt((int) smallest.current);
+                } else {
+                    buffer.putLong(smallest.current);
+                }
+
+                // cursor moved forward, its value is bigger now, so it has to sink
+                if (smallest.next()) {
+                    heap.changeRootValue(smallest);
+                } else {
+                    heap.removeFirst();
+                }
+            }
+            drain(output, buffer);
+        } finally {
+            for (RunCursor cursor : cursors) {
+                cursor.close();
+            }
+        }
+    }
+
+    /**
+     * Reads from the channel until the buffer is full or there's nothing left.
+     *
+     * @return number of bytes ready to be read from the (flipped) buffer
+     */
+    private static int fill(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) break;
+        }
+        buffer.flip();
+        return buffer.remaining();
+    }
+
+    /**
+     * Writes everything that's been put in the buffer and clears it.
+     * Also used by {@link OffHeapSort} for its merge output.
+     */
+    static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * @return size between MIN and MAX buffer size, multiple of width
+     */
+    private static int bufferSize(long available, int width) {
+        long size = Math.max(MIN_BUFFER_SIZE, Math.min(MAX_BUFFER_SIZE, available));
+        return (int) (size - size % width);
+    }
+
+    /**
+     * Run array and scratch array share the budget. No point
+     * in allocating more than there are elements in the file.
+     */
+    private static int runLength(Path in, long available, int width) throws IOException {
+        long length = Math.min(available / (2L * width), Files.size(in) / width);
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE - 8, length));
+    }
+
+    private static Path createTempFile(List<Path> tempFiles) throws IOException {
+        Path file = Files.createTempFile("run", ".bin");
+        tempFiles.add(file);
+        return file;
+    }
+
+    /**
+     * Points at the smallest not yet merged element of one sorted run.
+     * Compared by that element, so the min heap of cursors always
+     * has the cursor with the smallest element of all runs at the root.
+     */
+    private static class RunCursor implements Comparable<RunCursor> {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final int width;
+        private long current;
+
+        RunCursor(Path run, int bufferSize, int width) throws IOException {
+            this.channel = FileChannel.open(run, StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocate(bufferSize);
+            this.width = width;
+            buffer.limit(0); // nothing's been read yet
+        }
+
+        /**
+         * Moves the cursor to the next element of the run.
+         *
+         * @return false if the run is exhausted
+         */
+        boolean next() throws IOException {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                if (fill(channel, buffer) == 0) return false;
+            }
+            current = width == INT_WIDTH ? buffer.getInt() : buffer.getLong();
+            return true;
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+
+        @Override
+        public int compareTo(RunCursor o) {
+            return current == o.current ? 0 : current < o.current ? -1 : 1;
+        }
+    }
+}
@@ -2,7 +2,7 @@ package me.beresnev.algorithms.sorting;
 
 /**
  * @author Ignat Beresnev
- * @version 1.0
+ * @version 1.3
  * @since 18.02.17.
  */
 public class HeapSort {
@@ -13,7 +13,7 @@ public class HeapSort {
      * Time complexity:
      * O(n log n),
      * buildMaxHeap - O(n)
-     * heapify O(log n)
+     * siftDown O(log n)
      * Space complexity:
      * O(1)
      */
@@ -29,60 +29,318 @@ public class HeapSort {
      * the new root (biggest number) and place it at [0]. Repeat.
      */
     public static void sort(int[] arr) {
+        sort(arr, 2);
+    }
+
+    /**
+     * Same as {@link #sort(int[])}, only every node of the heap has
+     * d (arity) children instead of 2. Children of i are [d*i + 1, d*i + d].
+     * <p>
+     * The heap is log d(n) high instead of log 2(n), so sifting down
+     * goes through less levels, but compares d children on each one.
+     * The thing is, the children are next to each other in memory, so
+     * comparing them is cheap (same cache line), while jumping to the next
+     * level is a cache miss once the array is much bigger than the cache.
+     * 4 is a good value for big arrays: half the levels, and 4 ints
+     * are much less than a cache line.
+     *
+     * @param arity number of children of a node, at least 2
+     * @throws IllegalArgumentException if arity is less than 2
+     */
+    public static void sort(int[] arr, int arity) {
+        if (arity < 2)
+            throw new IllegalArgumentException("Arity is too low");
+        if (arr.length < 2) return;
+
+        buildMaxHeap(arr, 0, arr.length, arity);
+        for (int last = arr.length - 1; last > 0; last--) {
+            swap(arr, 0, last);
+            siftDown(arr, 0, 0, last, arity);
+        }
+    }
+
+    /**
+     * Same as {@link #sort(int[])}, only for longs.
+     */
+    public static void sort(long[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    /**
+     * Same as {@link #sort(int[])}, only for doubles. The order is the same
+     * as in Double.compareTo: -0.0 goes before 0.0 and NaNs go to the end.
+     *
+     * @see DoubleTotalOrder
+     */
+    public static void sort(double[] arr) {
+        int end = DoubleTotalOrder.moveNaNsToEnd(arr, 0, arr.length);
+        int negativeZeros = DoubleTotalOrder.replaceNegativeZeros(arr, 0, end);
+        sort(arr, 0, end);
+        DoubleTotalOrder.restoreNegativeZeros(arr, 0, end, negativeZeros);
+    }
+
+    /**
+     * Same as {@link #sort(int[])}, only for shorts.
+     */
+    public static void sort(short[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    /**
+     * Same as {@link #sort(int[])}, only for bytes.
+     */
+    public static void sort(byte[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    /**
+     * Sorts only [from, to) of the array, the heap is built right there.
+     * For sorts that need a guaranteed O(n log n) fallback for some part
+     * of the array without extra space.
+     *
+     * @param from first index to sort, inclusive
+     * @param to   last index to sort, exclusive
+     * @see QuickSort
+     */
+    static void sort(int[] arr, int from, int to) {
+        int size = to - from;
+        if (size < 2) return;
+
+        buildMaxHeap(arr, from, size, 2);
+        for (int last = size - 1; last > 0; last--) {
+            swap(arr, from, from + last);
+            siftDown(arr, from, 0, last, 2);
+        }
+    }
+
+    /**
+     * Same as {@link #sort(int[], int, int)}, only for longs.
+     */
+    static void sort(long[] arr, int from, int to) {
+        int size = to - from;
+        if (size < 2) return;
+
+        for (int i = (size - 2) / 2; i >= 0; i--) {
+            siftDown(arr, from, i, size);
+        }
+        for (int last = size - 1; last > 0; last--) {
+            long temp = arr[from];
+            arr[from] = arr[from + last];
+            arr[from + last] = temp;
+            siftDown(arr, from, 0, last);
+        }
+    }
+
+    /**
+     * Same as {@link #sort(int[], int, int)}, only for doubles. Values are
+     * compared with < and >, so there must be no NaNs in the range.
+     */
+    static void sort(double[] arr, int from, int to) {
+        int size = to - from;
+        if (size < 2) return;
+
+        for (int i = (size - 2) / 2; i >= 0; i--) {
+            siftDown(arr, from, i, size);
+        }
+        for (int last = size - 1; last > 0; last--) {
+            double temp = arr[from];
+            arr[from] = arr[from + last];
+            arr[from + last] = temp;
+            siftDown(arr, from, 0, last);
+        }
+    }
+
+    /**
+     * Same as {@link #sort(int[], int, int)}, only for shorts.
+     */
+    static void sort(short[] arr, int from, int to) {
+        int size = to - from;
+        if (size < 2) return;
+
+        for (int i = (size - 2) / 2; i >= 0; i--) {
+            siftDown(arr, from, i, size);
+        }
+        for (int last = size - 1; last > 0; last--) {
+            short temp = arr[from];
+            arr[from] = arr[from + last];
+            arr[from + last] = temp;
+            siftDown(arr, from, 0, last);
+        }
+    }
+
+    /**
+     * Same as {@link #sort(int[], int, int)}, only for bytes.
+     */
+    static void sort(byte[] arr, int from, int to) {
+        int size = to - from;
+        if (size < 2) return;
+
+        for (int i = (size - 2) / 2; i >= 0; i--) {
+            siftDown(arr, from, i, size);
+        }
+        for (int last = size - 1; last > 0; last--) {
+            byte temp = arr[from];
+            arr[from] = arr[from + last];
+            arr[from + last] = temp;
+            siftDown(arr, from, 0, last);
+        }
+    }
+
+    /**
+     * Floyd's bottom-up heap sort. Same as {@link #sort(int[])}, but the
+     * new root is sifted in a different way.
+     * <p>
+     * After the swap, the root is the element that was the last leaf, so it's
+     * most likely small and will end up somewhere near the bottom again.
+     * Usual sift down compares it with the bigger child on every level,
+     * that's 2 comparisons per level. Instead, we don't look at it at all on
+     * the way down: just keep moving the bigger child up, until we get to a
+     * leaf (1 comparison per level). Then we put the element in that leaf
+     * and sift it up until its parent is bigger, which usually takes just a
+     * level or two. Almost half the comparisons for the same result.
+     */
+    public static void bottomUpSort(int[] arr) {
         if (arr.length < 2) return;
-        int totalLeft = arr.length - 1;
-        buildMaxHeap(arr, totalLeft);
 
-        for (int i = totalLeft; i > 0; i--) {
-            swap(arr, 0, i);
-            totalLeft--;
-            heapify(arr, 0, totalLeft);
+        buildMaxHeap(arr, 0, arr.length, 2);
+        for (int last = arr.length - 1; last > 0; last--) {
+            swap(arr, 0, last);
+            siftToLeafThenUp(arr, last);
         }
     }
 
     /**
      * Builds a max heap from the array. Parents must be > than children.
-     * Why do we start from total / 2? Because that is the last level
-     * of nodes. Below are leaves only. So we start swapping from there.
+     * Why do we start from the parent of the last element? Because it's the
+     * last node that has children. Everything after it is leaves only.
+     * So we start sifting from there.
      * <p>
      * Time complexity of this - O(n) through careful analysis. We start
      * with the last level of nodes, swap everything (constant), and then
-     * as we get higher, the number of leaves to be swapped increases x2,
-     * but there are < 2 nodes every level. So it's
+     * as we get higher, the number of levels to sift through increases by 1,
+     * but there are half as many nodes on every level.
      *
-     * @param arr unsorted input array
+     * @param arr  unsorted input array
+     * @param base index of the root, heap is [base, base + size)
      * @see me.beresnev.datastructures.trees.MaxHeap
      */
-    private static void buildMaxHeap(int[] arr, int totalLeft) {
-        for (int i = totalLeft / 2; i >= 0; i--) {
-            heapify(arr, i, totalLeft);
+    private static void buildMaxHeap(int[] arr, int base, int size, int arity) {
+        for (int i = (size - 2) / arity; i >= 0; i--) {
+            siftDown(arr, base, i, size, arity);
         }
     }
 
     /**
-     * A typical max-heap heapify from the Heap data structure.
-     * Time complexity: O(logN) - height of the tree.
+     * A typical max-heap heapify from the Heap data structure, only
+     * iterative and with 0-based indexes. Instead of swapping on every level,
+     * the element is kept aside, bigger children are moved up into the hole,
+     * and the element is written once, where it finally belongs.
+     * Time complexity: O(d * log d(n)) - height of the tree.
      *
+     * @param base   index of the root in arr, all other indexes are relative to it
      * @param branch index of the selected branch
+     * @param size   number of elements in the heap, the rest is sorted already
      * @see me.beresnev.datastructures.trees.Heap#heapify(int)
      */
-    private static void heapify(int[] arr, int branch, int totalLeft) {
-        int leftChild = 2 * branch;
-        int rightChild = leftChild + 1;
+    private static void siftDown(int[] arr, int base, int branch, int size, int arity) {
+        int value = arr[base + branch];
+        int firstChild;
+        while ((firstChild = arity * branch + 1) < size) {
+            int largestChild = firstChild;
+            int lastChild = Math.min(firstChild + arity, size);
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                if (arr[base + child] > arr[base + largestChild]) {
+                    largestChild = child;
+                }
+            }
+
+            if (arr[base + largestChild] <= value) break;
+            arr[base + branch] = arr[base + largestChild];
+            branch = largestChild;
+        }
+        arr[base + branch] = value;
+    }
+
+    private static void siftDown(long[] arr, int base, int branch, int size) {
+        long value = arr[base + branch];
+        int child;
+        while ((child = 2 * branch + 1) < size) {
+            if (child + 1 < size && arr[base + child + 1] > arr[base + child]) {
+                child++;
+            }
+            if (arr[base + child] <= value) break;
+            arr[base + branch] = arr[base + child];
+            branch = child;
+        }
+        arr[base + branch] = value;
+    }
 
-        int largestValueIndex = branch;
-        if (leftChild <= totalLeft && arr[leftChild] > arr[branch]) {
-            largestValueIndex = leftChild;
+    private static void siftDown(double[] arr, int base, int branch, int size) {
+        double value = arr[base + branch];
+        int child;
+        while ((child = 2 * branch + 1) < size) {
+            if (child + 1 < size && arr[base + child + 1] > arr[base + child]) {
+                child++;
+            }
+            if (arr[base + child] <= value) break;
+            arr[base + branch] = arr[base + child];
+            branch = child;
         }
+        arr[base + branch] = value;
+    }
+
+    private static void siftDown(short[] arr, int base, int branch, int size) {
+        short value = arr[base + branch];
+        int child;
+        while ((child = 2 * branch + 1) < size) {
+            if (child + 1 < size && arr[base + child + 1] > arr[base + child]) {
+                child++;
+            }
+            if (arr[base + child] <= value) break;
+            arr[base + branch] = arr[base + child];
+            branch = child;
+        }
+        arr[base + branch] = value;
+    }
+
+    private static void siftDown(byte[] arr, int base, int branch, int size) {
+        byte value = arr[base + branch];
+        int child;
+        while ((child = 2 * branch + 1) < size) {
+            if (child + 1 < size && arr[base + child + 1] > arr[base + child]) {
+                child++;
+            }
+            if (arr[base + child] <= value) break;
+            arr[base + branch] = arr[base + child];
+            branch = child;
+        }
+        arr[base + branch] = value;
+    }
 
-        if (rightChild <= totalLeft && arr[rightChild] > arr[largestValueIndex]) {
-            largestValueIndex = rightChild;
+    /**
+     * Sifts the root of a binary heap of given size.
+     *
+     * @see #bottomUpSort(int[])
+     */
+    private static void siftToLeafThenUp(int[] arr, int size) {
+        int value = arr[0];
+        int hole = 0;
+        int child;
+        while ((child = 2 * hole + 1) < size) { // down, bigger child goes up
+            if (child + 1 < size && arr[child + 1] > arr[child]) {
+                child++;
+            }
+            arr[hole] = arr[child];
+            hole = child;
         }
 
-        if (largestValueIndex != branch) {
-            swap(arr, branch, largestValueIndex);
-            heapify(arr, largestValueIndex, totalLeft);
+        while (hole > 0) { // up, until the parent is bigger
+            int parent = (hole - 1) / 2;
+            if (arr[parent] >= value) break;
+            arr[hole] = arr[parent];
+            hole = parent;
         }
+        arr[hole] = value;
     }
 
     private static void swap(int[] arr, int a, int b) {
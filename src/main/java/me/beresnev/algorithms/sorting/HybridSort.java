@@ -0,0 +1,719 @@
+package me.beresnev.algorithms.sorting;
+
+import java.util.Comparator;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.1
+ * @since 18.10.26.
+ */
+public class HybridSort {
+    // arrays shorter than this are sorted with binary insertion only
+    private static final int MIN_MERGE = 32;
+    // how many times in a row one run has to win before we start galloping
+    private static final int MIN_GALLOP = 7;
+    // runs on the stack grow at least as fast as fibonacci numbers, 64 is plenty for 2^31
+    private static final int MAX_RUNS = 64;
+
+    /**
+     * Hybrid of merge sort and insertion sort, the same idea as TimSort.
+     * <p>
+     * Time complexity:
+     * - best O(n), when the array consists of a few sorted runs
+     * - worst O(n log n)
+     * Space complexity:
+     * - O(n/2) at most, for merging: the smaller of two runs is copied aside
+     * <p>
+     * Real data is rarely random. It's often made of pieces that are sorted
+     * already (runs): appended batches, concatenated sorted files, reversed
+     * lists. Merge sort doesn't care and splits everything down to single
+     * elements anyway. This sort looks for natural runs instead:
+     * 1) Walk the array and find the next run: ascending (a[i] <= a[i+1]) or
+     * strictly descending, which is reversed in place (strictly, so that
+     * reversing doesn't break stability).
+     * 2) If the run is shorter than minRun (~16-32), extend it to minRun
+     * with binary insertion sort. Small runs aren't worth merging.
+     * 3) Push the run on a stack and merge the top runs while their lengths
+     * break the invariants below. Lengths are kept decreasing fast enough
+     * (like fibonacci), so merges are always of similar sizes (balanced,
+     * like in merge sort) and the stack is short.
+     * 4) In the end, merge everything that's left on the stack.
+     * <p>
+     * Merges are galloping: if one run keeps winning, its next elements are
+     * probably going to win too, so instead of comparing them one by one, we
+     * search for the first element that doesn't win exponentially (1, 2, 4..)
+     * and copy the whole block at once. Before merging, parts of runs that
+     * are already in place are skipped the same way.
+     *
+     * @see MergeSort
+     * @see InsertionSort#binarySort(int[])
+     */
+    private HybridSort() {
+    }
+
+    public static void sort(int[] arr) {
+        int length = arr.length;
+        if (length < 2) return;
+
+        if (length < MIN_MERGE) {
+            int runLength = countRunAndMakeAscending(arr, 0, length);
+            InsertionSort.binarySort(arr, 0, length, runLength);
+            return;
+        }
+
+        IntRuns runs = new IntRuns(arr);
+        int minRun = minRunLength(length);
+        int low = 0;
+        int remaining = length;
+        do {
+            int runLength = countRunAndMakeAscending(arr, low, low + remaining);
+            if (runLength < minRun) { // 2
+                int forced = Math.min(remaining, minRun);
+                InsertionSort.binarySort(arr, low, low + forced, low + runLength);
+                runLength = forced;
+            }
+
+            runs.push(low, runLength); // 3
+            runs.mergeCollapse();
+
+            low += runLength;
+            remaining -= runLength;
+        } while (remaining != 0);
+
+        runs.mergeForceCollapse(); // 4
+    }
+
+    /**
+     * Same as {@link #sort(int[])}, for objects. Stable: equal elements
+     * keep the order they had in the input.
+     *
+     * @param c comparator that defines the order
+     */
+    public static <T> void sort(T[] arr, Comparator<? super T> c) {
+        sort(arr, 0, arr.length, c);
+    }
+
+    /**
+     * Sorts only [from, to) of the array.
+     *
+     * @see BucketSort#sampleSort(Object[], Comparator, java.util.concurrent.ForkJoinPool)
+     */
+    static <T> void sort(T[] arr, int from, int to, Comparator<? super T> c) {
+        int length = to - from;
+        if (length < 2) return;
+
+        if (length < MIN_MERGE) {
+            int runLength = countRunAndMakeAscending(arr, from, to, c);
+            InsertionSort.binarySort(arr, from, to, from + runLength, c);
+            return;
+        }
+
+        ObjectRuns<T> runs = new ObjectRuns<>(arr, c);
+        int minRun = minRunLength(length);
+        int low = from;
+        int remaining = length;
+        do {
+            int runLength = countRunAndMakeAscending(arr, low, low + remaining, c);
+            if (runLength < minRun) {
+                int forced = Math.min(remaining, minRun);
+                InsertionSort.binarySort(arr, low, low + forced, low + runLength, c);
+                runLength = forced;
+            }
+
+            runs.push(low, runLength);
+            runs.mergeCollapse();
+
+            low += runLength;
+            remaining -= runLength;
+        } while (remaining != 0);
+
+        runs.mergeForceCollapse();
+    }
+
+    /**
+     * Picks minRun from [MIN_MERGE / 2, MIN_MERGE], so that length / minRun is
+     * a power of 2 or a bit less than that. Then all merges are balanced:
+     * same as merging 2^k runs of equal size pairwise.
+     * Takes the 5 highest bits of length, +1 if any of the rest is set.
+     */
+    private static int minRunLength(int length) {
+        int rest = 0;
+        while (length >= MIN_MERGE) {
+            rest |= length & 1;
+            length >>= 1;
+        }
+        return length + rest;
+    }
+
+    /**
+     * @return length of the run that starts at low, it's ascending after this call
+     */
+    private static int countRunAndMakeAscending(int[] arr, int low, int high) {
+        int end = low + 1;
+        if (end == high) return 1;
+
+        if (arr[end++] < arr[low]) { // strictly descending
+            while (end < high && arr[end] < arr[end - 1]) end++;
+            reverse(arr, low, end);
+        } else {
+            while (end < high && arr[end] >= arr[end - 1]) end++;
+        }
+        return end - low;
+    }
+
+    private static <T> int countRunAndMakeAscending(T[] arr, int low, int high, Comparator<? super T> c) {
+        int end = low + 1;
+        if (end == high) return 1;
+
+        if (c.compare(arr[end++], arr[low]) < 0) {
+            while (end < high && c.compare(arr[end], arr[end - 1]) < 0) end++;
+            reverse(arr, low, end);
+        } else {
+            while (end < high && c.compare(arr[end], arr[end - 1]) >= 0) end++;
+        }
+        return end - low;
+    }
+
+    private static void reverse(int[] arr, int low, int high) {
+        for (high--; low < high; low++, high--) {
+            int temp = arr[low];
+            arr[low] = arr[high];
+            arr[high] = temp;
+        }
+    }
+
+    private static void reverse(Object[] arr, int low, int high) {
+        for (high--; low < high; low++, high--) {
+            Object temp = arr[low];
+            arr[low] = arr[high];
+            arr[high] = temp;
+        }
+    }
+
+    /**
+     * Exponential search for the first element in sorted [from, to) that is
+     * >= key (left = key would go to the left of equal elements).
+     * Probes from, from + 1, from + 3, from + 7... and then binary
+     * searches between the last two probes. O(log k) where k - the answer's
+     * distance from "from", so it's cheap when the answer is close.
+     */
+    private static int gallopLeft(int key, int[] arr, int from, int to) {
+        int low = from;
+        int probe = from;
+        int offset = 1;
+        while (probe < to && arr[probe] < key) {
+            low = probe + 1;
+            probe = offset > to - from ? to : from + offset;
+            offset = (offset << 1) + 1;
+        }
+        int high = Math.min(probe, to);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (arr[mid] < key)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * Same as {@link #gallopLeft(int, int[], int, int)}, only looks for the
+     * first element that is > key (key would go to the right of equal elements).
+     */
+    private static int gallopRight(int key, int[] arr, int from, int to) {
+        int low = from;
+        int probe = from;
+        int offset = 1;
+        while (probe < to && arr[probe] <= key) {
+            low = probe + 1;
+            probe = offset > to - from ? to : from + offset;
+            offset = (offset << 1) + 1;
+        }
+        int high = Math.min(probe, to);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (arr[mid] <= key)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    private static <T> int gallopLeft(T key, T[] arr, int from, int to, Comparator<? super T> c) {
+        int low = from;
+        int probe = from;
+        int offset = 1;
+        while (probe < to && c.compare(arr[probe], key) < 0) {
+            low = probe + 1;
+            probe = offset > to - from ? to : from + offset;
+            offset = (offset << 1) + 1;
+        }
+        int high = Math.min(probe, to);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (c.compare(arr[mid], key) < 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    private static <T> int gallopRight(T key, T[] arr, int from, int to, Comparator<? super T> c) {
+        int low = from;
+        int probe = from;
+        int offset = 1;
+        while (probe < to && c.compare(arr[probe], key) <= 0) {
+            low = probe + 1;
+            probe = offset > to - from ? to : from + offset;
+            offset = (offset << 1) + 1;
+        }
+        int high = Math.min(probe, to);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (c.compare(arr[mid], key) <= 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * Same as {@link #gallopLeft(int, int[], int, int)}, but probes from the
+     * other end: to - 1, to - 2, to - 4... So it's O(log k) where k - the
+     * answer's distance from "to". mergeHigh goes from right to left,
+     * and its answers are close to the end of the range.
+     */
+    private static int gallopLeftFromEnd(int key, int[] arr, int from, int to) {
+        int high = to;
+        int probe = to - 1;
+        int offset = 1;
+        while (probe >= from && arr[probe] >= key) {
+            high = probe;
+            probe = offset > (to - from) >>> 1 ? from - 1 : to - (offset <<= 1);
+        }
+        int low = probe + 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (arr[mid] < key)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * Same as {@link #gallopRight(int, int[], int, int)}, but probes from the end,
+     * see {@link #gallopLeftFromEnd(int, int[], int, int)}.
+     */
+    private static int gallopRightFromEnd(int key, int[] arr, int from, int to) {
+        int high = to;
+        int probe = to - 1;
+        int offset = 1;
+        while (probe >= from && arr[probe] > key) {
+            high = probe;
+            probe = offset > (to - from) >>> 1 ? from - 1 : to - (offset <<= 1);
+        }
+        int low = probe + 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (arr[mid] <= key)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    private static <T> int gallopLeftFromEnd(T key, T[] arr, int from, int to, Comparator<? super T> c) {
+        int high = to;
+        int probe = to - 1;
+        int offset = 1;
+        while (probe >= from && c.compare(arr[probe], key) >= 0) {
+            high = probe;
+            probe = offset > (to - from) >>> 1 ? from - 1 : to - (offset <<= 1);
+        }
+        int low = probe + 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (c.compare(arr[mid], key) < 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    private static <T> int gallopRightFromEnd(T key, T[] arr, int from, int to, Comparator<? super T> c) {
+        int high = to;
+        int probe = to - 1;
+        int offset = 1;
+        while (probe >= from && c.compare(arr[probe], key) > 0) {
+            high = probe;
+            probe = offset > (to - from) >>> 1 ? from - 1 : to - (offset <<= 1);
+        }
+        int low = probe + 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (c.compare(arr[mid], key) <= 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * Stack of pending runs of an int array. Run i is [base[i], base[i] + length[i]),
+     * and runs on the stack are always next to each other in the array.
+     * <p>
+     * Invariants for the top 3 runs X, Y, Z (Z on top):
+     * 1) X > Y + Z
+     * 2) Y > Z
+     * When they're broken, Y is merged with the smaller of X and Z.
+     */
+    private static class IntRuns {
+        private final int[] arr;
+        private int[] tmp = new int[0];
+        private final int[] base = new int[MAX_RUNS];
+        private final int[] length = new int[MAX_RUNS];
+        private int size;
+
+        IntRuns(int[] arr) {
+            this.arr = arr;
+        }
+
+        void push(int runBase, int runLength) {
+            base[size] = runBase;
+            length[size] = runLength;
+            size++;
+        }
+
+        /**
+         * Checks the invariants for the top runs, and further down the
+         * stack if needed: merging can break them for the runs below.
+         */
+        void mergeCollapse() {
+            while (size > 1) {
+                int n = size - 2;
+                if (n > 0 && length[n - 1] <= length[n] + length[n + 1]
+                        || n > 1 && length[n - 2] <= length[n] + length[n - 1]) {
+                    if (length[n - 1] < length[n + 1]) n--;
+                } else if (length[n] > length[n + 1]) {
+                    break; // invariants hold
+                }
+                mergeAt(n);
+            }
+        }
+
+        void mergeForceCollapse() {
+            while (size > 1) {
+                int n = size - 2;
+                if (n > 0 && length[n - 1] < length[n + 1]) n--;
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * Merges runs i and i + 1 into run i.
+         */
+        private void mergeAt(int i) {
+            int base1 = base[i];
+            int length1 = length[i];
+            int base2 = base[i + 1];
+            int length2 = length[i + 1];
+
+            length[i] = length1 + length2;
+            if (i == size - 3) { // run i + 2 moves down
+                base[i + 1] = base[i + 2];
+                length[i + 1] = length[i + 2];
+            }
+            size--;
+
+            // elements of run 1 that are <= run 2's first are in place already
+            int skip = gallopRight(arr[base2], arr, base1, base1 + length1) - base1;
+            length1 -= skip;
+            base1 += skip;
+            if (length1 == 0) return;
+
+            // same for run 2's elements that are >= run 1's last
+            length2 = gallopLeft(arr[base1 + length1 - 1], arr, base2, base2 + length2) - base2;
+            if (length2 == 0) return;
+
+            merge(base1, length1, base2, length2);
+        }
+
+        /**
+         * The smaller run is the one copied aside, so tmp never
+         * needs more than half of the array.
+         */
+        private void merge(int base1, int length1, int base2, int length2) {
+            int needed = Math.min(length1, length2);
+            if (tmp.length < needed) {
+                tmp = new int[Math.max(needed, Math.min(arr.length / 2, tmp.length * 2))];
+            }
+            if (length1 <= length2) {
+                mergeLow(base1, length1, base2, length2);
+            } else {
+                mergeHigh(base1, length1, base2, length2);
+            }
+        }
+
+        /**
+         * Run 1 is copied aside, run 2 stays where it is, and the result is
+         * written from base1 forward. It can never overwrite the elements of
+         * run 2 that are not merged yet: there are always exactly as many
+         * free places as there are elements of run 1 left in tmp.
+         */
+        private void mergeLow(int base1, int length1, int base2, int length2) {
+            System.arraycopy(arr, base1, tmp, 0, length1);
+
+            int cursor1 = 0;
+            int cursor2 = base2;
+            int end2 = base2 + length2;
+            int dest = base1;
+            int wins1 = 0;
+            int wins2 = 0;
+            while (cursor1 < length1 && cursor2 < end2) {
+                if (arr[cursor2] < tmp[cursor1]) {
+                    arr[dest++] = arr[cursor2++];
+                    wins2++;
+                    wins1 = 0;
+                    if (wins2 >= MIN_GALLOP && cursor2 < end2) {
+                        int next = gallopLeft(tmp[cursor1], arr, cursor2, end2);
+                        System.arraycopy(arr, cursor2, arr, dest, next - cursor2);
+                        dest += next - cursor2;
+                        cursor2 = next;
+                        wins2 = 0;
+                    }
+                } else { // <=, so equal elements of run 1 go first
+                    arr[dest++] = tmp[cursor1++];
+                    wins1++;
+                    wins2 = 0;
+                    if (wins1 >= MIN_GALLOP && cursor1 < length1) {
+                        int next = gallopRight(arr[cursor2], tmp, cursor1, length1);
+                        System.arraycopy(tmp, cursor1, arr, dest, next - cursor1);
+                        dest += next - cursor1;
+                        cursor1 = next;
+                        wins1 = 0;
+                    }
+                }
+            }
+            // what's left of run 2 is in its place already
+            System.arraycopy(tmp, cursor1, arr, dest, length1 - cursor1);
+        }
+
+        /**
+         * Mirror of {@link #mergeLow(int, int, int, int)}: run 2 is copied
+         * aside, and the result is written from the end of run 2 backward,
+         * the biggest elements first. On equal elements run 2's goes first
+         * (that is, to the right), so it's still stable.
+         */
+        private void mergeHigh(int base1, int length1, int base2, int length2) {
+            System.arraycopy(arr, base2, tmp, 0, length2);
+
+            int cursor1 = base1 + length1 - 1;
+            int cursor2 = length2 - 1;
+            int dest = base2 + length2 - 1;
+            int wins1 = 0;
+            int wins2 = 0;
+            while (cursor1 >= base1 && cursor2 >= 0) {
+                if (tmp[cursor2] < arr[cursor1]) {
+                    arr[dest--] = arr[cursor1--];
+                    wins1++;
+                    wins2 = 0;
+                    if (wins1 >= MIN_GALLOP && cursor1 >= base1) {
+                        // elements of run 1 that are > tmp[cursor2] go next
+                        int next = gallopRightFromEnd(tmp[cursor2], arr, base1, cursor1 + 1);
+                        int count = cursor1 + 1 - next;
+                        System.arraycopy(arr, next, arr, dest - count + 1, count);
+                        dest -= count;
+                        cursor1 = next - 1;
+                        wins1 = 0;
+                    }
+                } else {
+                    arr[dest--] = tmp[cursor2--];
+                    wins2++;
+                    wins1 = 0;
+                    if (wins2 >= MIN_GALLOP && cursor2 >= 0) {
+                        // elements of run 2 that are >= arr[cursor1] go next
+                        int next = gallopLeftFromEnd(arr[cursor1], tmp, 0, cursor2 + 1);
+                        int count = cursor2 + 1 - next;
+                        System.arraycopy(tmp, next, arr, dest - count + 1, count);
+                        dest -= count;
+                        cursor2 = next - 1;
+                        wins2 = 0;
+                    }
+                }
+            }
+            // what's left of run 1 is in its place already
+            System.arraycopy(tmp, 0, arr, base1, cursor2 + 1);
+        }
+    }
+
+    /**
+     * Same as {@link IntRuns}, for objects.
+     */
+    private static class ObjectRuns<T> {
+        private final T[] arr;
+        private final Comparator<? super T> c;
+        private T[] tmp;
+        private final int[] base = new int[MAX_RUNS];
+        private final int[] length = new int[MAX_RUNS];
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        ObjectRuns(T[] arr, Comparator<? super T> c) {
+            this.arr = arr;
+            this.c = c;
+            this.tmp = (T[]) new Object[0];
+        }
+
+        void push(int runBase, int runLength) {
+            base[size] = runBase;
+            length[size] = runLength;
+            size++;
+        }
+
+        void mergeCollapse() {
+            while (size > 1) {
+                int n = size - 2;
+                if (n > 0 && length[n - 1] <= length[n] + length[n + 1]
+                        || n > 1 && length[n - 2] <= length[n] + length[n - 1]) {
+                    if (length[n - 1] < length[n + 1]) n--;
+                } else if (length[n] > length[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+
+        void mergeForceCollapse() {
+            while (size > 1) {
+                int n = size - 2;
+                if (n > 0 && length[n - 1] < length[n + 1]) n--;
+                mergeAt(n);
+            }
+        }
+
+        private void mergeAt(int i) {
+            int base1 = base[i];
+            int length1 = length[i];
+            int base2 = base[i + 1];
+            int length2 = length[i + 1];
+
+            length[i] = length1 + length2;
+            if (i == size - 3) {
+                base[i + 1] = base[i + 2];
+                length[i + 1] = length[i + 2];
+            }
+            size--;
+
+            int skip = gallopRight(arr[base2], arr, base1, base1 + length1, c) - base1;
+            length1 -= skip;
+            base1 += skip;
+            if (length1 == 0) return;
+
+            length2 = gallopLeft(arr[base1 + length1 - 1], arr, base2, base2 + length2, c) - base2;
+            if (length2 == 0) return;
+
+            merge(base1, length1, base2, length2);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void merge(int base1, int length1, int base2, int length2) {
+            int needed = Math.min(length1, length2);
+            if (tmp.length < needed) {
+                tmp = (T[]) new Object[Math.max(needed, Math.min(arr.length / 2, tmp.length * 2))];
+            }
+            if (length1 <= length2) {
+                mergeLow(base1, length1, base2, length2);
+            } else {
+                mergeHigh(base1, length1, base2, length2);
+            }
+            // not keeping references to sorted objects
+            for (int i = 0; i < needed; i++) {
+                tmp[i] = null;
+            }
+        }
+
+        private void mergeLow(int base1, int length1, int base2, int length2) {
+            System.arraycopy(arr, base1, tmp, 0, length1);
+
+            int cursor1 = 0;
+            int cursor2 = base2;
+            int end2 = base2 + length2;
+            int dest = base1;
+            int wins1 = 0;
+            int wins2 = 0;
+            while (cursor1 < length1 && cursor2 < end2) {
+                if (c.compare(arr[cursor2], tmp[cursor1]) < 0) {
+                    arr[dest++] = arr[cursor2++];
+                    wins2++;
+                    wins1 = 0;
+                    if (wins2 >= MIN_GALLOP && cursor2 < end2) {
+                        int next = gallopLeft(tmp[cursor1], arr, cursor2, end2, c);
+                        System.arraycopy(arr, cursor2, arr, dest, next - cursor2);
+                        dest += next - cursor2;
+                        cursor2 = next;
+                        wins2 = 0;
+                    }
+                } else {
+                    arr[dest++] = tmp[cursor1++];
+                    wins1++;
+                    wins2 = 0;
+                    if (wins1 >= MIN_GALLOP && cursor1 < length1) {
+                        int next = gallopRight(arr[cursor2], tmp, cursor1, length1, c);
+                        System.arraycopy(tmp, cursor1, arr, dest, next - cursor1);
+                        dest += next - cursor1;
+                        cursor1 = next;
+                        wins1 = 0;
+                    }
+                }
+            }
+            System.arraycopy(tmp, cursor1, arr, dest, length1 - cursor1);
+        }
+
+        private void mergeHigh(int base1, int length1, int base2, int length2) {
+            System.arraycopy(arr, base2, tmp, 0, length2);
+
+            int cursor1 = base1 + length1 - 1;
+            int cursor2 = length2 - 1;
+            int dest = base2 + length2 - 1;
+            int wins1 = 0;
+            int wins2 = 0;
+            while (cursor1 >= base1 && cursor2 >= 0) {
+                if (c.compare(tmp[cursor2], arr[cursor1]) < 0) {
+                    arr[dest--] = arr[cursor1--];
+                    wins1++;
+                    wins2 = 0;
+                    if (wins1 >= MIN_GALLOP && cursor1 >= base1) {
+                        int next = gallopRightFromEnd(tmp[cursor2], arr, base1, cursor1 + 1, c);
+                        int count = cursor1 + 1 - next;
+                        System.arraycopy(arr, next, arr, dest - count + 1, count);
+                        dest -= count;
+                        cursor1 = next - 1;
+                        wins1 = 0;
+                    }
+                } else {
+                    arr[dest--] = tmp[cursor2--];
+                    wins2++;
+                    wins1 = 0;
+                    if (wins2 >= MIN_GALLOP && cursor2 >= 0) {
+                        int next = gallopLeftFromEnd(arr[cursor1], tmp, 0, cursor2 + 1, c);
+                        int count = cursor2 + 1 - next;
+                        System.arraycopy(tmp, next, arr, dest - count + 1, count);
+                        dest -= count;
+                        cursor2 = next - 1;
+                        wins2 = 0;
+                    }
+                }
+            }
+            System.arraycopy(tmp, 0, arr, base1, cursor2 + 1);
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package me.beresnev.algorithms.sorting;
 
+import java.util.Comparator;
+
 /**
  * @author Ignat Beresnev
- * @version 1.0
+ * @version 1.5
  * @since 18.02.17.
  */
 public class InsertionSort {
@@ -48,6 +50,192 @@ public class InsertionSort {
         }
     }
 
+    /**
+     * Sorts only [from, to) of the array. Meant for small ranges that are
+     * left from bigger sorts (buckets, partitions), where a "real" sort would
+     * cost more than it saves. Instead of swapping, the element is kept aside
+     * and bigger neighbours are shifted right by one until its place is found
+     * (hole), so it's one write per step instead of three.
+     *
+     * @param from first index to sort, inclusive
+     * @param to   last index to sort, exclusive
+     */
+    public static void sort(int[] arr, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int item = arr[i];
+            int indexHole = i;
+            while (indexHole > from && arr[indexHole - 1] > item) {
+                arr[indexHole] = arr[--indexHole];
+            }
+            arr[indexHole] = item;
+        }
+    }
+
+    /**
+     * Same as {@link #sort(int[], int, int)}, only for longs.
+     */
+    public static void sort(long[] arr, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            long item = arr[i];
+            int indexHole = i;
+            while (indexHole > from && arr[indexHole - 1] > item) {
+                arr[indexHole] = arr[--indexHole];
+            }
+            arr[indexHole] = item;
+        }
+    }
+
+    /**
+     * Same as {@link #sort(int[], int, int)}, only for doubles.
+     */
+    public static void sort(double[] arr, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            double item = arr[i];
+            int indexHole = i;
+            while (indexHole > from && arr[indexHole - 1] > item) {
+                arr[indexHole] = arr[--indexHole];
+            }
+            arr[indexHole] = item;
+        }
+    }
+
+    /**
+     * Same as {@link #sort(int[], int, int)}, only for byte keys in
+     * lexicographic order. Bytes are compared as unsigned (0..255), and
+     * if one key is the prefix of the other, the shorter one goes first.
+     */
+    public static void sort(byte[][] arr, int from, int to) {
+        sort(arr, from, to, 0);
+    }
+
+    /**
+     * @param depth all keys in [from, to) are known to share this many first bytes,
+     *              so there's no point in comparing them
+     */
+    static void sort(byte[][] arr, int from, int to, int depth) {
+        for (int i = from + 1; i < to; i++) {
+            byte[] item = arr[i];
+            int indexHole = i;
+            while (indexHole > from && compare(arr[indexHole - 1], item, depth) > 0) {
+                arr[indexHole] = arr[--indexHole];
+            }
+            arr[indexHole] = item;
+        }
+    }
+
+    private static int compare(byte[] a, byte[] b, int depth) {
+        int length = Math.min(a.length, b.length);
+        for (int i = depth; i < length; i++) {
+            int difference = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (difference != 0) return difference;
+        }
+        return a.length - b.length;
+    }
+
+    /**
+     * Binary insertion sort. Left part of the array [0, i) is always sorted,
+     * so there's no need to walk it element by element to find the place for
+     * arr[i]: binary search finds it in O(log i) comparisons. Then all the
+     * elements between that place and i are moved one step right with a
+     * single System.arraycopy, instead of swapping them one by one.
+     * <p>
+     * Still O(n^2) moves in the worst case, but moves are a block copy
+     * now, and comparisons are O(n log n). Stable: the element goes after
+     * all elements that are equal to it.
+     */
+    public static void binarySort(int[] arr) {
+        binarySort(arr, 0, arr.length, 1);
+    }
+
+    /**
+     * @param from  first index to sort, inclusive
+     * @param to    last index to sort, exclusive
+     * @param start [from, start) is known to be sorted already
+     */
+    static void binarySort(int[] arr, int from, int to, int start) {
+        if (start <= from) start = from + 1;
+        for (int i = start; i < to; i++) {
+            int item = arr[i];
+            if (item >= arr[i - 1]) continue; // already in its place
+
+            int place = upperBound(arr, from, i - 1, item);
+            System.arraycopy(arr, place, arr, place + 1, i - place);
+            arr[place] = item;
+        }
+    }
+
+    /**
+     * Same as {@link #binarySort(int[], int, int, int)}, only for objects.
+     */
+    static <T> void binarySort(T[] arr, int from, int to, int start, Comparator<? super T> c) {
+        if (start <= from) start = from + 1;
+        for (int i = start; i < to; i++) {
+            T item = arr[i];
+            if (c.compare(item, arr[i - 1]) >= 0) continue;
+
+            int low = from;
+            int high = i - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (c.compare(arr[mid], item) <= 0)
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+            System.arraycopy(arr, low, arr, low + 1, i - low);
+            arr[low] = item;
+        }
+    }
+
+    /**
+     * Insertion sort for arrays that are almost sorted already, like
+     * timestamps that are appended mostly in order.
+     * <p>
+     * Elements that are bigger than their left neighbour (in order) cost
+     * one comparison. When an element is out of order, it's usually just a
+     * few places away from where it belongs, so instead of binary searching
+     * the whole sorted part, we gallop to the left from i: check i - 1,
+     * i - 2, i - 4, i - 8... until we find an element that is <= to ours.
+     * Its place is between the last two checked ones, so we binary search
+     * only there. That's O(log k) comparisons for an element that is k
+     * places off, so the whole sort is close to linear when k is small.
+     */
+    public static void gallopingSort(int[] arr) {
+        for (int i = 1; i < arr.length; i++) {
+            int item = arr[i];
+            if (item >= arr[i - 1]) continue;
+
+            int high = i - 1; // arr[high] > item
+            int step = 1;
+            int low = high - step;
+            while (low >= 0 && arr[low] > item) {
+                high = low;
+                step <<= 1;
+                low = high - step;
+            }
+            // arr[low] <= item (or it's out of bounds), so the place is in (low, high]
+            int place = upperBound(arr, Math.max(low + 1, 0), high, item);
+            System.arraycopy(arr, place, arr, place + 1, i - place);
+            arr[place] = item;
+        }
+    }
+
+    /**
+     * Binary search in sorted [low, high], where arr[high] > value.
+     *
+     * @return index of the first element that is > value
+     */
+    private static int upperBound(int[] arr, int low, int high, int value) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (arr[mid] <= value)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
     /**
      * We move backwards in the same list (from the position of j) until left
      * neighbour is <= than our current element. On our way, if we see that
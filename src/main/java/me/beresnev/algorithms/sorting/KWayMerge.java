@@ -0,0 +1,256 @@
+package me.beresnev.algorithms.sorting;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.0
+ * @since 18.10.26.
+ */
+public class KWayMerge {
+
+    /**
+     * K-way merge (loser tree)
+     * <p>
+     * Time complexity:
+     * - O(k) to start, O(log k) per merged value
+     * Space complexity:
+     * - O(k), nothing is allocated per value
+     * <p>
+     * Merges k sorted sources into one sorted stream, lazily: a value is
+     * read from a source only when the previous one of it is emitted.
+     * {@link MergeSort#mergeReturn(int[], int[])} does the same for two
+     * arrays, but it needs both of them in memory and allocates the result.
+     * <p>
+     * The smallest of k heads is picked with a tournament tree. Sources are
+     * the leaves, every inner node is a match between the winners of its
+     * two subtrees. A loser tree keeps the loser of the match in the node,
+     * and the overall winner on top. When the winner's source moves to its
+     * next value, only the matches on the path from that leaf to the root
+     * have to be replayed, and every one of them is against the loser stored
+     * in the node: log k comparisons, and no looking at siblings like
+     * a binary heap does when it sinks an element.
+     * <p>
+     * Ties go to the source with the smaller index, so equal values come
+     * out in the order of the sources. An exhausted source is bigger than
+     * anything, once the winner is exhausted, everything is.
+     *
+     * @see ExternalMergeSort
+     */
+    private KWayMerge() {
+    }
+
+    /**
+     * @param sources every one of them sorted in ascending order
+     * @return iterator of all values of all sources, in ascending order
+     */
+    public static PrimitiveIterator.OfInt merge(PrimitiveIterator.OfInt... sources) {
+        return new IntMerger(sources, false);
+    }
+
+    /**
+     * Same as {@link #merge(PrimitiveIterator.OfInt...)}, only every value
+     * is emitted once, no matter how many times it's repeated in the
+     * sources or across them. Repeats are skipped right after the value is
+     * emitted, so they're read from the sources before the next call.
+     */
+    public static PrimitiveIterator.OfInt mergeDistinct(PrimitiveIterator.OfInt... sources) {
+        return new IntMerger(sources, true);
+    }
+
+    /**
+     * Same as {@link #merge(PrimitiveIterator.OfInt...)}, only for longs.
+     */
+    public static PrimitiveIterator.OfLong merge(PrimitiveIterator.OfLong... sources) {
+        return new LongMerger(sources, false);
+    }
+
+    /**
+     * Same as {@link #mergeDistinct(PrimitiveIterator.OfInt...)}, only for longs.
+     */
+    public static PrimitiveIterator.OfLong mergeDistinct(PrimitiveIterator.OfLong... sources) {
+        return new LongMerger(sources, true);
+    }
+
+    /**
+     * Everything but the values themselves: which sources are exhausted
+     * and the tree of losers. tree[0] is the winner, tree[1 ... k - 1] are
+     * inner nodes, children of node n are 2n and 2n + 1. Leaf of source i
+     * is k + i, it isn't stored anywhere.
+     */
+    private abstract static class LoserTree {
+        final int k;
+        final int[] tree;
+        final boolean[] exhausted;
+
+        LoserTree(int k) {
+            this.k = k;
+            this.tree = new int[Math.max(k, 1)];
+            this.exhausted = new boolean[k];
+        }
+
+        /**
+         * @return true if head of source a goes before head of source b
+         */
+        abstract boolean less(int a, int b);
+
+        /**
+         * Plays all matches bottom-up, winners of inner nodes
+         * are kept aside only while the tree is built.
+         */
+        void build() {
+            if (k == 0) return;
+            int[] winners = new int[k];
+            for (int node = k - 1; node > 0; node--) {
+                int left = 2 * node < k ? winners[2 * node] : 2 * node - k;
+                int right = 2 * node + 1 < k ? winners[2 * node + 1] : 2 * node + 1 - k;
+                if (beats(left, right)) {
+                    winners[node] = left;
+                    tree[node] = right;
+                } else {
+                    winners[node] = right;
+                    tree[node] = left;
+                }
+            }
+            tree[0] = k == 1 ? 0 : winners[1];
+        }
+
+        /**
+         * Source of the winner has a new head, replays its path to the root.
+         */
+        void replay() {
+            int winner = tree[0];
+            for (int node = (k + winner) >>> 1; node > 0; node >>>= 1) {
+                if (beats(tree[node], winner)) {
+                    int loser = winner;
+                    winner = tree[node];
+                    tree[node] = loser;
+                }
+            }
+            tree[0] = winner;
+        }
+
+        private boolean beats(int a, int b) {
+            if (exhausted[a]) return false;
+            if (exhausted[b]) return true;
+            return less(a, b) || (!less(b, a) && a < b);
+        }
+
+        public boolean hasNext() {
+            return k > 0 && !exhausted[tree[0]];
+        }
+
+        void checkNext() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+        }
+    }
+
+    private static class IntMerger extends LoserTree implements PrimitiveIterator.OfInt {
+        private final PrimitiveIterator.OfInt[] sources;
+        private final int[] heads;
+        private final boolean distinct;
+
+        IntMerger(PrimitiveIterator.OfInt[] sources, boolean distinct) {
+            super(sources.length);
+            this.sources = sources.clone();
+            this.heads = new int[k];
+            this.distinct = distinct;
+            for (int i = 0; i < k; i++) {
+                if (sources[i].hasNext()) {
+                    heads[i] = sources[i].nextInt();
+                } else {
+                    exhausted[i] = true;
+                }
+            }
+            build();
+        }
+
+        @Override
+        boolean less(int a, int b) {
+            return heads[a] < heads[b];
+        }
+
+        @Override
+        public int nextInt() {
+            checkNext();
+            int value = heads[tree[0]];
+            advance();
+            while (distinct && hasNext() && heads[tree[0]] == value) {
+                advance();
+            }
+            return value;
+        }
+
+        /**
+         * Winner's source moves to its next value.
+         *
+         * @throws IllegalArgumentException if the source goes down, it's not sorted
+         */
+        private void advance() {
+            int winner = tree[0];
+            PrimitiveIterator.OfInt source = sources[winner];
+            if (source.hasNext()) {
+                int next = source.nextInt();
+                if (next < heads[winner])
+                    throw new IllegalArgumentException("Source " + winner + " is not sorted");
+                heads[winner] = next;
+            } else {
+                exhausted[winner] = true;
+            }
+            replay();
+        }
+    }
+
+    private static class LongMerger extends LoserTree implements PrimitiveIterator.OfLong {
+        private final PrimitiveIterator.OfLong[] sources;
+        private final long[] heads;
+        private final boolean distinct;
+
+        LongMerger(PrimitiveIterator.OfLong[] sources, boolean distinct) {
+            super(sources.length);
+            this.sources = sources.clone();
+            this.heads = new long[k];
+            this.distinct = distinct;
+            for (int i = 0; i < k; i++) {
+                if (sources[i].hasNext()) {
+                    heads[i] = sources[i].nextLong();
+                } else {
+                    exhausted[i] = true;
+                }
+            }
+            build();
+        }
+
+        @Override
+        boolean less(int a, int b) {
+            return heads[a] < heads[b];
+        }
+
+        @Override
+        public long nextLong() {
+            checkNext();
+            long value = heads[tree[0]];
+            advance();
+            while (distinct && hasNext() && heads[tree[0]] == value) {
+                advance();
+            }
+            return value;
+        }
+
+        private void advance() {
+            int winner = tree[0];
+            PrimitiveIterator.OfLong source = sources[winner];
+            if (source.hasNext()) {
+                long next = source.nextLong();
+                if (next < heads[winner])
+                    throw new IllegalArgumentException("Source " + winner + " is not sorted");
+                heads[winner] = next;
+            } else {
+                exhausted[winner] = true;
+            }
+            replay();
+        }
+    }
+}
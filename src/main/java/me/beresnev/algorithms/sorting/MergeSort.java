@@ -1,12 +1,20 @@
 package me.beresnev.algorithms.sorting;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * @author Ignat Beresnev
- * @version 1.1
+ * @version 1.6
  * @since 18.02.17.
  */
 public class MergeSort {
 
+    /**
+     * Ranges smaller than this are not worth forking, the overhead
+     * of scheduling a task is bigger than just sorting them in place.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 13;
 
     /**
      * Merge sort
@@ -36,6 +44,43 @@ public class MergeSort {
         mergesort(arr, temp, 0, arr.length - 1);
     }
 
+    /**
+     * Same as {@link #sort(int[])}, but the two halves of every range that is
+     * bigger than the default threshold are sorted in parallel.
+     *
+     * @param arr  input array
+     * @param pool pool to run the tasks in
+     * @see #parallelSort(int[], ForkJoinPool, int)
+     */
+    public static void parallelSort(int[] arr, ForkJoinPool pool) {
+        parallelSort(arr, pool, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Merge sort is a perfect fit for fork-join: left and right halves
+     * never touch each other's indexes, neither in arr nor in temp, so
+     * they can be sorted by different threads without any locking.
+     * The merge waits for both halves to finish (join) and is done by
+     * the thread that forked them. The whole sort shares one temp buffer,
+     * same as the sequential version.
+     * <p>
+     * When a range gets smaller than threshold, the task stops forking
+     * and falls back to the sequential mergesort for that range.
+     *
+     * @param arr       input array
+     * @param pool      pool to run the tasks in
+     * @param threshold ranges of this size or smaller are sorted sequentially
+     * @throws IllegalArgumentException if threshold is less than 1
+     */
+    public static void parallelSort(int[] arr, ForkJoinPool pool, int threshold) {
+        if (threshold < 1)
+            throw new IllegalArgumentException("Threshold is too low");
+        if (arr.length < 2) return;
+
+        int[] temp = new int[arr.length];
+        pool.invoke(new MergeSortTask(arr, temp, 0, arr.length - 1, threshold));
+    }
+
     /**
      * "Divides" the initial array into smaller part to then combine them. Only
      * instead of the actual dividing, it just divides the bounds (indexes) that
@@ -44,7 +89,10 @@ public class MergeSort {
      * @see #mergeReturn(int[], int[]) for better understanding.
      */
     private static void mergesort(int[] arr, int[] temp, int low, int high) {
-        if (low < high) {
+        if (high - low < SortingNetwork.MAX_LENGTH) {
+            // too short to split any further, ints don't care about stability
+            SortingNetwork.sort(arr, low, high - low + 1);
+        } else {
             // arr.length and temp.length never change, causing infinite recursive loop and stackOverFlow
             int mid = (low + high) / 2;
             mergesort(arr, temp, low, mid);
@@ -83,30 +131,369 @@ public class MergeSort {
      * @param high   high index of "right" array
      */
     private static void merge(int[] arr, int[] temp, int low, int middle, int high) {
-        int leftPointer = low, rightPointer = middle + 1;
+        // left's biggest is <= right's smallest, so [low, high] is already sorted
+        if (arr[middle] <= arr[middle + 1]) return;
 
-        for (int i = low; i <= high; i++) {
-            if (leftPointer <= middle && rightPointer <= high) {
-                if (arr[leftPointer] < arr[rightPointer]) { // TODO: Check stability if change < to =<
-                    temp[i] = arr[leftPointer++];
-                } else {
-                    temp[i] = arr[rightPointer++];
+        int leftPointer = low, rightPointer = middle + 1, i = low;
+        while (leftPointer <= middle && rightPointer <= high) {
+            // <= keeps equal elements in their initial order, which makes the sort stable
+            if (arr[leftPointer] <= arr[rightPointer]) {
+                temp[i++] = arr[leftPointer++];
+            } else {
+                temp[i++] = arr[rightPointer++];
+            }
+        }
+        // whatever's left in the right array is already in its place in arr,
+        // so we only have to move the rest of the left one, right before it
+        int leftRemaining = middle - leftPointer + 1;
+        System.arraycopy(arr, leftPointer, arr, i, leftRemaining);
+        // only [low, i) belongs to this merge, the rest of temp might
+        // be in use by another task if we're sorting in parallel
+        System.arraycopy(temp, low, arr, low, i - low);
+    }
+
+    /**
+     * Iterative (bottom-up) merge sort. Instead of dividing the array
+     * recursively, we start from the bottom of the recursion tree: first
+     * merge neighbouring runs of size 1 into runs of size 2, then 2 into 4,
+     * 4 into 8 and so on, until there's one run that is the whole array.
+     * <p>
+     * Every pass merges all runs from one buffer into the other one (src
+     * into dst), and then they swap roles (ping-pong). This way no pass has
+     * to copy the merged results back, and there's no recursion at all.
+     * If the last pass wrote into scratch, it's copied into arr once.
+     * <p>
+     * The first passes, up to runs of 16, are skipped: every block of 16
+     * is sorted with a sorting network right away, in place.
+     * <p>
+     * Nothing is allocated here, so if you sort a lot of arrays, you can
+     * pass the same scratch buffer every time.
+     *
+     * @param arr     input array
+     * @param scratch buffer of at least arr.length, its content is overwritten
+     * @throws IllegalArgumentException if scratch is smaller than arr
+     */
+    public static void sortBottomUp(int[] arr, int[] scratch) {
+        if (scratch.length < arr.length)
+            throw new IllegalArgumentException("Scratch buffer is too small");
+        int length = arr.length;
+        if (length < 2) return;
+
+        int width = SortingNetwork.MAX_LENGTH;
+        for (int low = 0; low < length; low += width) {
+            SortingNetwork.sort(arr, low, Math.min(width, length - low));
+        }
+
+        int[] src = arr;
+        int[] dst = scratch;
+        for (; width < length; width *= 2) {
+            for (int low = 0; low < length; low += 2 * width) {
+                int middle = Math.min(low + width, length);
+                int high = Math.min(low + 2 * width, length);
+                mergeInto(src, dst, low, middle, high);
+            }
+            int[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, length);
+        }
+    }
+
+    /**
+     * Merges src[low, middle) and src[middle, high) into dst[low, high).
+     * Unlike {@link #merge(int[], int[], int, int, int)}, bounds are exclusive
+     * on the right and the result stays in dst.
+     */
+    private static void mergeInto(int[] src, int[] dst, int low, int middle, int high) {
+        int leftPointer = low, rightPointer = middle, i = low;
+        while (leftPointer < middle && rightPointer < high) {
+            if (src[leftPointer] <= src[rightPointer]) {
+                dst[i++] = src[leftPointer++];
+            } else {
+                dst[i++] = src[rightPointer++];
+            }
+        }
+        System.arraycopy(src, leftPointer, dst, i, middle - leftPointer);
+        i += middle - leftPointer;
+        System.arraycopy(src, rightPointer, dst, i, high - rightPointer);
+    }
+
+    /**
+     * Same as {@link #sortBottomUp(int[], int[])}, only for longs.
+     *
+     * @param arr     input array
+     * @param scratch buffer of at least arr.length, its content is overwritten
+     * @throws IllegalArgumentException if scratch is smaller than arr
+     */
+    public static void sortBottomUp(long[] arr, long[] scratch) {
+        if (scratch.length < arr.length)
+            throw new IllegalArgumentException("Scratch buffer is too small");
+        int length = arr.length;
+        if (length < 2) return;
+
+        int width = SortingNetwork.MAX_LENGTH;
+        for (int low = 0; low < length; low += width) {
+            SortingNetwork.sort(arr, low, Math.min(width, length - low));
+        }
+
+        long[] src = arr;
+        long[] dst = scratch;
+        for (; width < length; width *= 2) {
+            for (int low = 0; low < length; low += 2 * width) {
+                int middle = Math.min(low + width, length);
+                int high = Math.min(low + 2 * width, length);
+                mergeInto(src, dst, low, middle, high);
+            }
+            long[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, length);
+        }
+    }
+
+    private static void mergeInto(long[] src, long[] dst, int low, int middle, int high) {
+        int leftPointer = low, rightPointer = middle, i = low;
+        while (leftPointer < middle && rightPointer < high) {
+            if (src[leftPointer] <= src[rightPointer]) {
+                dst[i++] = src[leftPointer++];
+            } else {
+                dst[i++] = src[rightPointer++];
+            }
+        }
+        System.arraycopy(src, leftPointer, dst, i, middle - leftPointer);
+        i += middle - leftPointer;
+        System.arraycopy(src, rightPointer, dst, i, high - rightPointer);
+    }
+
+    /**
+     * Same as {@link #sort(int[])}, only for longs.
+     * It's {@link #sortBottomUp(long[], long[])} under the hood, so
+     * the scratch buffer is the only thing that's allocated.
+     */
+    public static void sort(long[] arr) {
+        sortBottomUp(arr, new long[arr.length]);
+    }
+
+    /**
+     * Same as {@link #sort(int[])}, only for doubles.
+     * The order is the same as in Double.compareTo: -0.0 goes
+     * before 0.0 and NaNs go to the end.
+     * It's {@link #sortBottomUp(double[], double[])} under the hood, so
+     * the scratch buffer is the only thing that's allocated.
+     */
+    public static void sort(double[] arr) {
+        sortBottomUp(arr, new double[arr.length]);
+    }
+
+    /**
+     * Same as {@link #sort(int[])}, only for shorts.
+     * It's {@link #sortBottomUp(short[], short[])} under the hood, so
+     * the scratch buffer is the only thing that's allocated.
+     */
+    public static void sort(short[] arr) {
+        sortBottomUp(arr, new short[arr.length]);
+    }
+
+    /**
+     * Same as {@link #sort(int[])}, only for bytes.
+     * It's {@link #sortBottomUp(byte[], byte[])} under the hood, so
+     * the scratch buffer is the only thing that's allocated.
+     */
+    public static void sort(byte[] arr) {
+        sortBottomUp(arr, new byte[arr.length]);
+    }
+
+    /**
+     * Same as {@link #sortBottomUp(int[], int[])}, only for doubles. The order
+     * is the same as in Double.compareTo: -0.0 goes before 0.0 and NaNs go
+     * to the end, only values are compared with <= instead of Double.compare.
+     *
+     * @param arr     input array
+     * @param scratch buffer of at least arr.length, its content is overwritten
+     * @throws IllegalArgumentException if scratch is smaller than arr
+     * @see DoubleTotalOrder
+     */
+    public static void sortBottomUp(double[] arr, double[] scratch) {
+        if (scratch.length < arr.length)
+            throw new IllegalArgumentException("Scratch buffer is too small");
+        int length = DoubleTotalOrder.moveNaNsToEnd(arr, 0, arr.length);
+        int negativeZeros = DoubleTotalOrder.replaceNegativeZeros(arr, 0, length);
+        if (length > 1) {
+            double[] src = arr;
+            double[] dst = scratch;
+            for (int width = 1; width < length; width *= 2) {
+                for (int low = 0; low < length; low += 2 * width) {
+                    int middle = Math.min(low + width, length);
+                    int high = Math.min(low + 2 * width, length);
+                    mergeInto(src, dst, low, middle, high);
                 }
-            } else if (leftPointer <= middle) { // adding the last element
-                temp[i] = arr[leftPointer++];
+                double[] swap = src;
+                src = dst;
+                dst = swap;
+            }
+
+            if (src != arr) {
+                System.arraycopy(src, 0, arr, 0, length);
+            }
+        }
+        DoubleTotalOrder.restoreNegativeZeros(arr, 0, length, negativeZeros);
+    }
+
+    private static void mergeInto(double[] src, double[] dst, int low, int middle, int high) {
+        int leftPointer = low, rightPointer = middle, i = low;
+        while (leftPointer < middle && rightPointer < high) {
+            if (src[leftPointer] <= src[rightPointer]) {
+                dst[i++] = src[leftPointer++];
+            } else {
+                dst[i++] = src[rightPointer++];
+            }
+        }
+        System.arraycopy(src, leftPointer, dst, i, middle - leftPointer);
+        i += middle - leftPointer;
+        System.arraycopy(src, rightPointer, dst, i, high - rightPointer);
+    }
+
+    /**
+     * Same as {@link #sortBottomUp(int[], int[])}, only for shorts.
+     *
+     * @param arr     input array
+     * @param scratch buffer of at least arr.length, its content is overwritten
+     * @throws IllegalArgumentException if scratch is smaller than arr
+     */
+    public static void sortBottomUp(short[] arr, short[] scratch) {
+        if (scratch.length < arr.length)
+            throw new IllegalArgumentException("Scratch buffer is too small");
+        int length = arr.length;
+        if (length < 2) return;
+
+        short[] src = arr;
+        short[] dst = scratch;
+        for (int width = 1; width < length; width *= 2) {
+            for (int low = 0; low < length; low += 2 * width) {
+                int middle = Math.min(low + width, length);
+                int high = Math.min(low + 2 * width, length);
+                mergeInto(src, dst, low, middle, high);
+            }
+            short[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, length);
+        }
+    }
+
+    private static void mergeInto(short[] src, short[] dst, int low, int middle, int high) {
+        int leftPointer = low, rightPointer = middle, i = low;
+        while (leftPointer < middle && rightPointer < high) {
+            if (src[leftPointer] <= src[rightPointer]) {
+                dst[i++] = src[leftPointer++];
+            } else {
+                dst[i++] = src[rightPointer++];
+            }
+        }
+        System.arraycopy(src, leftPointer, dst, i, middle - leftPointer);
+        i += middle - leftPointer;
+        System.arraycopy(src, rightPointer, dst, i, high - rightPointer);
+    }
+
+    /**
+     * Same as {@link #sortBottomUp(int[], int[])}, only for bytes.
+     *
+     * @param arr     input array
+     * @param scratch buffer of at least arr.length, its content is overwritten
+     * @throws IllegalArgumentException if scratch is smaller than arr
+     */
+    public static void sortBottomUp(byte[] arr, byte[] scratch) {
+        if (scratch.length < arr.length)
+            throw new IllegalArgumentException("Scratch buffer is too small");
+        int length = arr.length;
+        if (length < 2) return;
+
+        byte[] src = arr;
+        byte[] dst = scratch;
+        for (int width = 1; width < length; width *= 2) {
+            for (int low = 0; low < length; low += 2 * width) {
+                int middle = Math.min(low + width, length);
+                int high = Math.min(low + 2 * width, length);
+                mergeInto(src, dst, low, middle, high);
+            }
+            byte[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, length);
+        }
+    }
+
+    private static void mergeInto(byte[] src, byte[] dst, int low, int middle, int high) {
+        int leftPointer = low, rightPointer = middle, i = low;
+        while (leftPointer < middle && rightPointer < high) {
+            if (src[leftPointer] <= src[rightPointer]) {
+                dst[i++] = src[leftPointer++];
             } else {
-                temp[i] = arr[rightPointer++];
+                dst[i++] = src[rightPointer++];
+            }
+        }
+        System.arraycopy(src, leftPointer, dst, i, middle - leftPointer);
+        i += middle - leftPointer;
+        System.arraycopy(src, rightPointer, dst, i, high - rightPointer);
+    }
+
+    /**
+     * One range [low, high] of the parallel sort.
+     *
+     * @see #parallelSort(int[], ForkJoinPool, int)
+     */
+    private static class MergeSortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] arr;
+        private final int[] temp;
+        private final int low;
+        private final int high;
+        private final int threshold;
+
+        MergeSortTask(int[] arr, int[] temp, int low, int high, int threshold) {
+            this.arr = arr;
+            this.temp = temp;
+            this.low = low;
+            this.high = high;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low + 1 <= threshold) {
+                mergesort(arr, temp, low, high);
+                return;
             }
+            int mid = (low + high) >>> 1;
+            invokeAll(new MergeSortTask(arr, temp, low, mid, threshold),
+                    new MergeSortTask(arr, temp, mid + 1, high, threshold));
+            merge(arr, temp, low, mid, high);
         }
-        System.arraycopy(temp, 0, arr, 0, high + 1);
     }
 
     /**
      * Returns the sorted array, as opposed to sorting the input one.
      * Either way, it needs O(n) space. The only difference is the return type.
+     * Allocates new left and right arrays on every level, so the data has
+     * to fit in memory a few times over. For data that doesn't fit in
+     * memory at all, see ExternalMergeSort.
      *
      * @param arr input array
      * @return sorted arr
+     * @see ExternalMergeSort
      */
     public static int[] sortReturn(int[] arr) {
         if (arr.length < 2) return arr;
@@ -0,0 +1,428 @@
+package me.beresnev.algorithms.sorting;
+
+import me.beresnev.datastructures.trees.MinHeap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.0
+ * @since 18.10.26.
+ */
+public class OffHeapSort {
+    private static final int KEY_WIDTH = 8;
+    private static final int CUTOFF = 32;
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * One mapping can't be bigger than Integer.MAX_VALUE bytes,
+     * so bigger files are mapped by chunks of at most this size.
+     */
+    private static final long MAX_CHUNK_BYTES = 1L << 30;
+
+    /**
+     * Off-heap sort of fixed-width records
+     * <p>
+     * Time complexity:
+     * - O(n * k), k - # of key bytes (8), for a buffer or a file under 1 GB
+     * - O(n * k + n log c), c - # of chunks, for bigger files
+     * <p>
+     * Space complexity:
+     * - O(1) heap, the data itself never leaves the buffer or the mapping
+     * - O(n) disk for files bigger than one chunk
+     * <p>
+     * For data that's already in a direct buffer or in a file that's mapped
+     * into memory. Copying it into a long[] would need as much heap as there
+     * is data, so instead the buffer is sorted right where it is.
+     * <p>
+     * Every record is recordWidth bytes, and somewhere inside of it, at
+     * keyOffset, there's a signed 8-byte key. Records are sorted by it
+     * with MSD radix sort (American flag sort): records are swapped into 256
+     * buckets by the highest key byte, and every bucket is then sorted by
+     * the next byte. Swaps are done by absolute indices, so the only heap
+     * memory used is two tables of 256 counters per level.
+     * <p>
+     * This is a copy of the loop of {@link RadixSort#msdSort(int[])}, not
+     * a call to it, on purpose. That one holds the displaced element in a
+     * local variable while it looks for its bucket, a record doesn't fit
+     * in a variable, so here it's swapped instead. Putting an index-based
+     * interface under the int[] sort would cost it a virtual call for every
+     * element access. The digit itself is shared, {@link RadixSort#msdDigit(long, int)}.
+     * <p>
+     * Files bigger than one chunk (1 GB) are mapped by chunks. Every chunk
+     * is sorted in place as above, and then all chunks are merged at once
+     * into a temp file next to the input, with a min heap of cursors like
+     * in {@link ExternalMergeSort}. Its cursors read runs through the heap,
+     * ours point into the mappings, so the merge loop is not shared, only
+     * {@link ExternalMergeSort#drain}. The temp file is then copied back
+     * over the input.
+     */
+    private OffHeapSort() {
+    }
+
+    /**
+     * Sorts longs between the position and the limit of the buffer.
+     * Position and limit are not changed.
+     *
+     * @param buffer for example, a view of a mapped file: mapped.asLongBuffer()
+     */
+    public static void sort(LongBuffer buffer) {
+        Records records = new LongRecords(buffer);
+        sort(records, buffer.position(), buffer.limit(), 56);
+    }
+
+    /**
+     * Sorts records between the position and the limit of the buffer.
+     * Keys are read in the buffer's byte order. Position and limit
+     * are not changed.
+     *
+     * @param buffer      for example, a MappedByteBuffer
+     * @param recordWidth width of a record in bytes, at least 8
+     * @param keyOffset   where the 8-byte key starts inside of a record
+     * @throws IllegalArgumentException if the key doesn't fit in a record, or
+     *                                  the buffer doesn't hold a whole number of records
+     */
+    public static void sort(ByteBuffer buffer, int recordWidth, int keyOffset) {
+        checkRecord(recordWidth, keyOffset);
+        if (buffer.remaining() % recordWidth != 0)
+            throw new IllegalArgumentException("Buffer size is not a multiple of " + recordWidth + " bytes");
+
+        Records records = new ByteRecords(buffer, buffer.position(), recordWidth, keyOffset);
+        sort(records, 0, buffer.remaining() / recordWidth, 56);
+    }
+
+    /**
+     * Sorts a binary file of records in place. Keys are big-endian,
+     * the same format DataOutputStream writes.
+     *
+     * @param file        file to sort
+     * @param recordWidth width of a record in bytes, at least 8
+     * @param keyOffset   where the 8-byte key starts inside of a record
+     * @throws IllegalArgumentException if the key doesn't fit in a record, or
+     *                                  the file doesn't hold a whole number of records
+     */
+    public static void sort(Path file, int recordWidth, int keyOffset) throws IOException {
+        sort(file, recordWidth, keyOffset, MAX_CHUNK_BYTES);
+    }
+
+    /**
+     * @param maxChunkBytes max size of one mapping, so that
+     *                      the chunking can be tested on small files
+     */
+    static void sort(Path file, int recordWidth, int keyOffset, long maxChunkBytes) throws IOException {
+        checkRecord(recordWidth, keyOffset);
+        long size = Files.size(file);
+        if (size % recordWidth != 0)
+            throw new IllegalArgumentException("File size is not a multiple of " + recordWidth + " bytes");
+        long chunkBytes = Math.max(1, maxChunkBytes / recordWidth) * recordWidth;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            List<MappedByteBuffer> chunks = new ArrayList<>();
+            for (long offset = 0; offset < size; offset += chunkBytes) {
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_WRITE,
+                        offset, Math.min(chunkBytes, size - offset));
+                sort(chunk, recordWidth, keyOffset);
+                chunks.add(chunk);
+            }
+            if (chunks.size() > 1) {
+                merge(channel, file, chunks, recordWidth, keyOffset);
+            }
+        }
+    }
+
+    /**
+     * k-way merge of sorted chunks into a temp file, which is then
+     * copied over the input. Output goes through a direct buffer,
+     * so the records don't pass through the heap here either.
+     */
+    private static void merge(FileChannel channel, Path file, List<MappedByteBuffer> chunks,
+                              int recordWidth, int keyOffset) throws IOException {
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "merged", ".bin");
+        try {
+            try (FileChannel output = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(
+                        Math.max(1, OUTPUT_BUFFER_SIZE / recordWidth) * recordWidth);
+                MinHeap<ChunkCursor> heap = new MinHeap<>();
+                for (MappedByteBuffer chunk : chunks) {
+                    heap.add(new ChunkCursor(chunk, recordWidth, keyOffset));
+                }
+
+                while (!heap.isEmpty()) {
+                    ChunkCursor smallest = heap.examine();
+                    if (buffer.remaining() < recordWidth) ExternalMergeSort.drain(output, buffer);
+                    smallest.copyRecord(buffer);
+
+                    // cursor moved forward, its key is bigger now, so it has to sink
+                    if (smallest.next()) {
+                        heap.changeRootValue(smallest);
+                    } else {
+                        heap.removeFirst();
+                    }
+                }
+                ExternalMergeSort.drain(output, buffer);
+            }
+
+            try (FileChannel input = FileChannel.open(temp, StandardOpenOption.READ)) {
+                long size = input.size();
+                long copied = 0;
+                while (copied < size) {
+                    copied += input.transferTo(copied, size - copied, channel.position(copied));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void checkRecord(int recordWidth, int keyOffset) {
+        if (keyOffset < 0 || recordWidth < KEY_WIDTH || keyOffset > recordWidth - KEY_WIDTH)
+            throw new IllegalArgumentException("Key doesn't fit in a record");
+    }
+
+    /**
+     * American flag sort of records [from, to) by the key byte at shift.
+     *
+     * @see RadixSort#msdSort(int[])
+     */
+    private static void sort(Records records, int from, int to, int shift) {
+        if (to - from <= CUTOFF) {
+            insertionSort(records, from, to);
+            return;
+        }
+
+        int[] next = new int[257];
+        for (int i = from; i < to; i++) {
+            next[RadixSort.msdDigit(records.key(i), shift) + 1]++;
+        }
+        int[] end = new int[256];
+        next[0] = from;
+        for (int d = 0; d < 256; d++) {
+            next[d + 1] += next[d];
+            end[d] = next[d + 1];
+        }
+
+        // records can't be held in a variable like ints, so they are swapped
+        for (int d = 0; d < 256; d++) {
+            while (next[d] < end[d]) {
+                int bucket = RadixSort.msdDigit(records.key(next[d]), shift);
+                if (bucket == d) {
+                    next[d]++;
+                } else {
+                    records.swap(next[d], next[bucket]++);
+                }
+            }
+        }
+
+        if (shift == 0) return;
+        int start = from;
+        for (int d = 0; d < 256; d++) {
+            if (end[d] - start > 1) {
+                sort(records, start, end[d], shift - 8);
+            }
+            start = end[d];
+        }
+    }
+
+    /**
+     * Keys are cheap to read, records are expensive to move. So first the
+     * place for record i is found by keys only, then the records between
+     * are shifted one step right, each is copied once, and record i, held
+     * aside, is put in its place.
+     *
+     * @see InsertionSort#sort(int[], int, int)
+     */
+    private static void insertionSort(Records records, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            long key = records.key(i);
+            int hole = i;
+            while (hole > from && records.key(hole - 1) > key) {
+                hole--;
+            }
+            if (hole == i) continue;
+
+            records.hold(i);
+            for (int j = i; j > hole; j--) {
+                records.copy(j - 1, j);
+            }
+            records.place(hole);
+        }
+    }
+
+    /**
+     * Records of a buffer by their index, so that the sort
+     * doesn't care what kind of buffer it is.
+     */
+    private abstract static class Records {
+        abstract long key(int i);
+
+        abstract void swap(int i, int j);
+
+        /**
+         * Record from overwrites record to
+         */
+        abstract void copy(int from, int to);
+
+        /**
+         * Keeps a copy of record i aside, for {@link #place(int)}
+         */
+        abstract void hold(int i);
+
+        abstract void place(int i);
+    }
+
+    private static class LongRecords extends Records {
+        private final LongBuffer buffer;
+        private long held;
+
+        LongRecords(LongBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        long key(int i) {
+            return buffer.get(i);
+        }
+
+        @Override
+        void swap(int i, int j) {
+            long temp = buffer.get(i);
+            buffer.put(i, buffer.get(j));
+            buffer.put(j, temp);
+        }
+
+        @Override
+        void copy(int from, int to) {
+            buffer.put(to, buffer.get(from));
+        }
+
+        @Override
+        void hold(int i) {
+            held = buffer.get(i);
+        }
+
+        @Override
+        void place(int i) {
+            buffer.put(i, held);
+        }
+    }
+
+    private static class ByteRecords extends Records {
+        private final ByteBuffer buffer;
+        private final int base;
+        private final int width;
+        private final int keyOffset;
+        private final byte[] held;
+
+        ByteRecords(ByteBuffer buffer, int base, int width, int keyOffset) {
+            this.buffer = buffer;
+            this.base = base;
+            this.width = width;
+            this.keyOffset = keyOffset;
+            this.held = new byte[width];
+        }
+
+        @Override
+        long key(int i) {
+            return buffer.getLong(base + i * width + keyOffset);
+        }
+
+        /**
+         * 8 bytes at a time while they fit, byte by byte for the tail.
+         */
+        @Override
+        void swap(int i, int j) {
+            int a = base + i * width;
+            int b = base + j * width;
+            int k = 0;
+            for (; k + 8 <= width; k += 8) {
+                long temp = buffer.getLong(a + k);
+                buffer.putLong(a + k, buffer.getLong(b + k));
+                buffer.putLong(b + k, temp);
+            }
+            for (; k < width; k++) {
+                byte temp = buffer.get(a + k);
+                buffer.put(a + k, buffer.get(b + k));
+                buffer.put(b + k, temp);
+            }
+        }
+
+        @Override
+        void copy(int from, int to) {
+            int a = base + from * width;
+            int b = base + to * width;
+            int k = 0;
+            for (; k + 8 <= width; k += 8) {
+                buffer.putLong(b + k, buffer.getLong(a + k));
+            }
+            for (; k < width; k++) {
+                buffer.put(b + k, buffer.get(a + k));
+            }
+        }
+
+        @Override
+        void hold(int i) {
+            int a = base + i * width;
+            for (int k = 0; k < width; k++) {
+                held[k] = buffer.get(a + k);
+            }
+        }
+
+        @Override
+        void place(int i) {
+            int a = base + i * width;
+            for (int k = 0; k < width; k++) {
+                buffer.put(a + k, held[k]);
+            }
+        }
+    }
+
+    /**
+     * Points at the smallest not yet merged record of one sorted chunk.
+     * Compared by the key of that record.
+     */
+    private static class ChunkCursor implements Comparable<ChunkCursor> {
+        private final ByteBuffer chunk;
+        private final int width;
+        private final int keyOffset;
+        private int offset;
+        private long key;
+
+        ChunkCursor(MappedByteBuffer chunk, int width, int keyOffset) {
+            this.chunk = chunk.duplicate(); // own position and limit for copying
+            this.width = width;
+            this.keyOffset = keyOffset;
+            this.key = this.chunk.getLong(keyOffset);
+        }
+
+        /**
+         * @return false if the chunk is exhausted
+         */
+        boolean next() {
+            offset += width;
+            if (offset >= chunk.capacity()) return false;
+            key = chunk.getLong(offset + keyOffset);
+            return true;
+        }
+
+        void copyRecord(ByteBuffer out) {
+            chunk.limit(offset + width);
+            chunk.position(offset);
+            out.put(chunk);
+            chunk.limit(chunk.capacity()); // absolute gets are checked against the limit too
+        }
+
+        @Override
+        public int compareTo(ChunkCursor o) {
+            return key == o.key ? 0 : key < o.key ? -1 : 1;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package me.beresnev.algorithms.sorting;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.0
+ * @since 18.10.26.
+ */
+public class ParallelRadixSort {
+    private static final int DIGIT_BITS = 8;
+    private static final int RADIX = 1 << DIGIT_BITS;
+    private static final int MASK = RADIX - 1;
+    private static final int PASSES = 32 / DIGIT_BITS;
+
+    /**
+     * Slices smaller than this aren't worth a thread, the
+     * histograms would cost more than the elements themselves.
+     */
+    private static final int MIN_SLICE = 1 << 14;
+
+    /**
+     * Parallel LSD radix sort
+     * <p>
+     * Time complexity:
+     * - O(d(n/p + p*b)), d - # of digits (4), b - base (256), p - # of threads
+     * <p>
+     * Space complexity:
+     * - O(n + p*b)
+     * <p>
+     * Same as {@link RadixSort#lsdSortBytes(int[])}, only every pass is done
+     * by p threads. The array is cut into p slices, one per thread.
+     * Each pass goes like this:
+     * 1) Every thread counts digits of its own slice into its own histogram.
+     * No thread writes into someone else's histogram, so no locking.
+     * 2) One thread does the prefix sum over all histograms, digit by digit
+     * and thread by thread inside of a digit. That gives every thread the
+     * index in the output, starting from which it puts elements with a
+     * given digit. Threads get disjoint ranges of the output this way.
+     * 3) Every thread scatters its slice into the shared output buffer.
+     * Elements with the same digit keep their order, since the thread with
+     * the earlier slice gets the earlier range, so it's still stable.
+     */
+    private ParallelRadixSort() {
+    }
+
+    /**
+     * Sorts arr in place. Uses as many threads as the pool's parallelism,
+     * but small arrays are sorted with the sequential version.
+     *
+     * @param arr  input array, negative numbers are fine
+     * @param pool pool to run the threads in
+     * @see RadixSort#lsdSortBytes(int[])
+     */
+    public static void sort(int[] arr, ForkJoinPool pool) {
+        int threads = Math.min(pool.getParallelism(), arr.length / MIN_SLICE);
+        if (threads < 2) {
+            RadixSort.lsdSortBytes(arr);
+            return;
+        }
+        pool.invoke(new SortTask(arr, threads));
+    }
+
+    /**
+     * Sign bit is flipped, so negative numbers go before positive ones.
+     *
+     * @see RadixSort#lsdSortBytes(int[], int)
+     */
+    private static int digit(int value, int shift) {
+        return ((value ^ Integer.MIN_VALUE) >>> shift) & MASK;
+    }
+
+    /**
+     * Runs all the passes. Every phase of a pass forks one task per
+     * slice and waits for all of them before the next phase starts.
+     */
+    private static class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] arr;
+        private final int threads;
+
+        SortTask(int[] arr, int threads) {
+            this.arr = arr;
+            this.threads = threads;
+        }
+
+        @Override
+        protected void compute() {
+            int length = arr.length;
+            int[] bounds = new int[threads + 1];
+            for (int t = 0; t <= threads; t++) {
+                bounds[t] = (int) ((long) length * t / threads);
+            }
+            int[][] counts = new int[threads][RADIX];
+            CountTask[] countTasks = new CountTask[threads];
+            ScatterTask[] scatterTasks = new ScatterTask[threads];
+
+            int[] src = arr;
+            int[] dst = new int[length];
+            for (int pass = 0; pass < PASSES; pass++) {
+                int shift = pass * DIGIT_BITS;
+
+                for (int t = 0; t < threads; t++) { // 1
+                    countTasks[t] = new CountTask(src, bounds[t], bounds[t + 1], shift, counts[t]);
+                }
+                invokeAll(countTasks);
+
+                if (sameDigit(counts, length)) continue; // nothing would move
+
+                int carry = 0; // 2
+                for (int digit = 0; digit < RADIX; digit++) {
+                    for (int t = 0; t < threads; t++) {
+                        int temp = counts[t][digit];
+                        counts[t][digit] = carry;
+                        carry += temp;
+                    }
+                }
+
+                for (int t = 0; t < threads; t++) { // 3
+                    scatterTasks[t] = new ScatterTask(src, dst, bounds[t], bounds[t + 1], shift, counts[t]);
+                }
+                invokeAll(scatterTasks);
+
+                int[] swap = src;
+                src = dst;
+                dst = swap;
+            }
+
+            if (src != arr) {
+                System.arraycopy(src, 0, arr, 0, length);
+            }
+        }
+
+        /**
+         * @return true if all elements of the whole array have the same digit
+         */
+        private static boolean sameDigit(int[][] counts, int length) {
+            for (int digit = 0; digit < RADIX; digit++) {
+                int total = 0;
+                for (int[] count : counts) {
+                    total += count[digit];
+                }
+                if (total == length) return true;
+                if (total > 0) return false;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Builds the histogram of one slice [from, to) for the current digit.
+     */
+    private static class CountTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] src;
+        private final int from;
+        private final int to;
+        private final int shift;
+        private final int[] count;
+
+        CountTask(int[] src, int from, int to, int shift, int[] count) {
+            this.src = src;
+            this.from = from;
+            this.to = to;
+            this.shift = shift;
+            this.count = count;
+        }
+
+        @Override
+        protected void compute() {
+            for (int digit = 0; digit < RADIX; digit++) {
+                count[digit] = 0;
+            }
+            for (int i = from; i < to; i++) {
+                count[digit(src[i], shift)]++;
+            }
+        }
+    }
+
+    /**
+     * Puts every element of one slice [from, to) into its place in dst.
+     * Offsets are this slice's own, after the global prefix sum.
+     */
+    private static class ScatterTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] src;
+        private final int[] dst;
+        private final int from;
+        private final int to;
+        private final int shift;
+        private final int[] offset;
+
+        ScatterTask(int[] src, int[] dst, int from, int to, int shift, int[] offset) {
+            this.src = src;
+            this.dst = dst;
+            this.from = from;
+            this.to = to;
+            this.shift = shift;
+            this.offset = offset;
+        }
+
+        @Override
+        protected void compute() {
+            for (int i = from; i < to; i++) {
+                int value = src[i];
+                dst[offset[digit(value, shift)]++] = value;
+            }
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package me.beresnev.algorithms.sorting;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.1
+ * @since 18.10.26.
+ */
+public class QuickSort {
+    // ranges shorter than this are sorted with insertion sort,
+    // unless they're short enough for a sorting network
+    private static final int INSERTION_CUTOFF = 32;
+
+    /**
+     * Dual-pivot quick sort (introsort)
+     * <p>
+     * Time complexity:
+     * - average O(n log n)
+     * - worst O(n log n), thanks to the heap sort fallback
+     * Space complexity:
+     * - O(log n) for recursion, sorts in place
+     * <p>
+     * Classic quick sort picks one element (pivot) and partitions the array
+     * into elements < pivot and > pivot, then does the same for both parts.
+     * Dual-pivot takes two pivots p1 <= p2 and partitions into three parts:
+     * < p1, [p1, p2] and > p2. It's less comparisons in total and, more
+     * importantly, less passes over memory than the classic one.
+     * <p>
+     * Partitioning is Yaroslavskiy's: pivots are put at both ends of the
+     * range, and one pass goes from left to right with three pointers.
+     * Everything before lt is < p1, everything after gt is > p2, and
+     * [lt, i) is in between. a[i] either stays, or is swapped to lt or gt.
+     * In the end, the pivots are swapped into their places, lt and gt.
+     * <p>
+     * Details:
+     * - Pivots are picked as the 2nd and the 4th of 5 evenly spaced elements.
+     * The samples are swapped to the start of the range and sorted there.
+     * That splits the range into roughly equal thirds, even if the data
+     * is partially sorted.
+     * - If the pivots are equal, there's probably a lot of duplicates, so
+     * the range is partitioned into < p, == p and > p (Dijkstra's
+     * "Dutch national flag"). The middle is done.
+     * - Ranges shorter than 32 go to insertion sort, it's faster there.
+     * Ints and longs of 16 or less go to a sorting network instead, it
+     * has no branches to mispredict.
+     * - Every level of recursion decreases the depth limit (2 * log n).
+     * If it runs out, the data is bad for our pivots, and the range is
+     * sorted with heap sort. That's what makes the worst case O(n log n)
+     * instead of O(n^2) (that's the "intro" in introsort).
+     *
+     * @see HeapSort
+     * @see InsertionSort#sort(int[], int, int)
+     * @see SortingNetwork
+     */
+    private QuickSort() {
+    }
+
+    public static void sort(int[] arr) {
+        sort(arr, 0, arr.length - 1, depthLimit(arr.length));
+    }
+
+    /**
+     * Same as {@link #sort(int[])}, only for longs.
+     */
+    public static void sort(long[] arr) {
+        sort(arr, 0, arr.length - 1, depthLimit(arr.length));
+    }
+
+    /**
+     * Same as {@link #sort(int[])}, only for doubles. The order is the same
+     * as in Double.compareTo: -0.0 goes before 0.0 and NaNs go to the end.
+     *
+     * @see DoubleTotalOrder
+     */
+    public static void sort(double[] arr) {
+        int end = DoubleTotalOrder.moveNaNsToEnd(arr, 0, arr.length);
+        int negativeZeros = DoubleTotalOrder.replaceNegativeZeros(arr, 0, end);
+        sort(arr, 0, end - 1, depthLimit(end));
+        DoubleTotalOrder.restoreNegativeZeros(arr, 0, end, negativeZeros);
+    }
+
+    /**
+     * @return 2 * log2(length)
+     */
+    private static int depthLimit(int length) {
+        return 2 * (32 - Integer.numberOfLeadingZeros(Math.max(length, 1)));
+    }
+
+    /**
+     * Sorts [left, right], both inclusive.
+     *
+     * Package-private, so that tests can start with a small depth.
+     *
+     * @param depth how many more levels of recursion we allow before heap sort
+     */
+    static void sort(int[] a, int left, int right, int depth) {
+        int length = right - left + 1;
+        if (length <= SortingNetwork.MAX_LENGTH) {
+            SortingNetwork.sort(a, left, length);
+            return;
+        }
+        if (length < INSERTION_CUTOFF) {
+            InsertionSort.sort(a, left, right + 1);
+            return;
+        }
+        if (depth == 0) {
+            HeapSort.sort(a, left, right + 1);
+            return;
+        }
+        depth--;
+
+        // samples at 1/6 ... 5/6 of the range go to [left, left + 5)
+        int step = length / 6;
+        for (int k = 0; k < 5; k++) {
+            swap(a, left + k, left + (k + 1) * step);
+        }
+        SortingNetwork.sort(a, left, 5);
+        int pivot1 = a[left + 1];
+        int pivot2 = a[left + 3];
+
+        if (pivot1 == pivot2) {
+            int lt = left;
+            int gt = right;
+            int i = left;
+            while (i <= gt) {
+                int x = a[i];
+                if (x < pivot1) {
+                    swap(a, i++, lt++);
+                } else if (x > pivot1) {
+                    swap(a, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            // [lt, gt] is all == pivot, done with it
+            sort(a, left, lt - 1, depth);
+            sort(a, gt + 1, right, depth);
+            return;
+        }
+
+        // pivots wait at the ends while the rest is partitioned
+        swap(a, left, left + 1);
+        swap(a, right, left + 3);
+        int lt = left + 1;
+        int gt = right - 1;
+        int i = lt;
+        while (i <= gt) {
+            int x = a[i];
+            if (x < pivot1) {
+                swap(a, i++, lt++);
+            } else if (x > pivot2) {
+                swap(a, i, gt--); // a[i] is new, it's looked at on the next step
+            } else {
+                i++;
+            }
+        }
+        swap(a, left, --lt);
+        swap(a, right, ++gt);
+
+        sort(a, left, lt - 1, depth);
+        sort(a, lt + 1, gt - 1, depth);
+        sort(a, gt + 1, right, depth);
+    }
+
+    private static void swap(int[] a, int i, int j) {
+        int temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+
+    static void sort(long[] a, int left, int right, int depth) {
+        int length = right - left + 1;
+        if (length <= SortingNetwork.MAX_LENGTH) {
+            SortingNetwork.sort(a, left, length);
+            return;
+        }
+        if (length < INSERTION_CUTOFF) {
+            InsertionSort.sort(a, left, right + 1);
+            return;
+        }
+        if (depth == 0) {
+            HeapSort.sort(a, left, right + 1);
+            return;
+        }
+        depth--;
+
+        // samples at 1/6 ... 5/6 of the range go to [left, left + 5)
+        int step = length / 6;
+        for (int k = 0; k < 5; k++) {
+            swap(a, left + k, left + (k + 1) * step);
+        }
+        SortingNetwork.sort(a, left, 5);
+        long pivot1 = a[left + 1];
+        long pivot2 = a[left + 3];
+
+        if (pivot1 == pivot2) {
+            int lt = left;
+            int gt = right;
+            int i = left;
+            while (i <= gt) {
+                long x = a[i];
+                if (x < pivot1) {
+                    swap(a, i++, lt++);
+                } else if (x > pivot1) {
+                    swap(a, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            // [lt, gt] is all == pivot, done with it
+            sort(a, left, lt - 1, depth);
+            sort(a, gt + 1, right, depth);
+            return;
+        }
+
+        // pivots wait at the ends while the rest is partitioned
+        swap(a, left, left + 1);
+        swap(a, right, left + 3);
+        int lt = left + 1;
+        int gt = right - 1;
+        int i = lt;
+        while (i <= gt) {
+            long x = a[i];
+            if (x < pivot1) {
+                swap(a, i++, lt++);
+            } else if (x > pivot2) {
+                swap(a, i, gt--); // a[i] is new, it's looked at on the next step
+            } else {
+                i++;
+            }
+        }
+        swap(a, left, --lt);
+        swap(a, right, ++gt);
+
+        sort(a, left, lt - 1, depth);
+        sort(a, lt + 1, gt - 1, depth);
+        sort(a, gt + 1, right, depth);
+    }
+
+    private static void swap(long[] a, int i, int j) {
+        long temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+
+    /**
+     * NaNs and -0.0 have to be dealt with already, see {@link DoubleTotalOrder}.
+     */
+    static void sort(double[] a, int left, int right, int depth) {
+        int length = right - left + 1;
+        if (length < INSERTION_CUTOFF) {
+            InsertionSort.sort(a, left, right + 1);
+            return;
+        }
+        if (depth == 0) {
+            HeapSort.sort(a, left, right + 1);
+            return;
+        }
+        depth--;
+
+        // samples at 1/6 ... 5/6 of the range go to [left, left + 5)
+        int step = length / 6;
+        for (int k = 0; k < 5; k++) {
+            swap(a, left + k, left + (k + 1) * step);
+        }
+        sortFive(a, left);
+        double pivot1 = a[left + 1];
+        double pivot2 = a[left + 3];
+
+        if (pivot1 == pivot2) {
+            int lt = left;
+            int gt = right;
+            int i = left;
+            while (i <= gt) {
+                double x = a[i];
+                if (x < pivot1) {
+                    swap(a, i++, lt++);
+                } else if (x > pivot1) {
+                    swap(a, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            // [lt, gt] is all == pivot, done with it
+            sort(a, left, lt - 1, depth);
+            sort(a, gt + 1, right, depth);
+            return;
+        }
+
+        // pivots wait at the ends while the rest is partitioned
+        swap(a, left, left + 1);
+        swap(a, right, left + 3);
+        int lt = left + 1;
+        int gt = right - 1;
+        int i = lt;
+        while (i <= gt) {
+            double x = a[i];
+            if (x < pivot1) {
+                swap(a, i++, lt++);
+            } else if (x > pivot2) {
+                swap(a, i, gt--); // a[i] is new, it's looked at on the next step
+            } else {
+                i++;
+            }
+        }
+        swap(a, left, --lt);
+        swap(a, right, ++gt);
+
+        sort(a, left, lt - 1, depth);
+        sort(a, lt + 1, gt - 1, depth);
+        sort(a, gt + 1, right, depth);
+    }
+
+    private static void swap(double[] a, int i, int j) {
+        double temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+
+    /**
+     * Sorts a[from, from + 5) with 9 compare-swaps.
+     */
+    private static void sortFive(double[] a, int from) {
+        compareSwap(a, from, from + 1);
+        compareSwap(a, from + 3, from + 4);
+        compareSwap(a, from + 2, from + 4);
+        compareSwap(a, from + 2, from + 3);
+        compareSwap(a, from, from + 3);
+        compareSwap(a, from, from + 2);
+        compareSwap(a, from + 1, from + 4);
+        compareSwap(a, from + 1, from + 3);
+        compareSwap(a, from + 1, from + 2);
+    }
+
+    private static void compareSwap(double[] a, int i, int j) {
+        if (a[i] > a[j]) {
+            swap(a, i, j);
+        }
+    }
+}
@@ -2,11 +2,17 @@ package me.beresnev.algorithms.sorting;
 
 /**
  * @author Ignat Beresnev
- * @version 1.1
+ * @version 1.6
  * @since 25.02.17.
  */
 public class RadixSort {
 
+    /**
+     * Buckets of this size or smaller are sorted with insertion sort,
+     * 256 counters would cost more than the bucket itself.
+     */
+    private static final int MSD_CUTOFF = 32;
+
     /**
      * Radix LSD sort
      * <p>
@@ -135,6 +141,503 @@ public class RadixSort {
         return out;
     }
 
+    /**
+     * Same as {@link #lsdSortBytes(int[], int)} with 8-bit digits.
+     */
+    public static void lsdSortBytes(int[] arr) {
+        lsdSortBytes(arr, 8);
+    }
+
+    /**
+     * LSD sort that looks at binary digits instead of decimal ones. A digit
+     * is 8 or 16 bits, so the base is 256 or 65536, and an int has 4 or 2
+     * of them. Getting a digit is a shift and a mask instead of / and %.
+     * <p>
+     * All digit histograms are built in one read pass over the array,
+     * instead of one read pass per digit. If all keys have the same
+     * digit (say, all values are < 2^16, so upper digits are all 0),
+     * that pass wouldn't move anything, so it's skipped.
+     * <p>
+     * Negative numbers: in two's complement they have the sign bit set,
+     * so as unsigned numbers they would be bigger than positive ones.
+     * Flipping the sign bit fixes that: MIN_VALUE becomes 0, -1 becomes
+     * 2^31 - 1 and 0 becomes 2^31. Values themselves are not changed,
+     * the flip is only done when a digit is extracted.
+     * <p>
+     * Passes go between arr and one buffer of the same size (ping-pong),
+     * so it sorts arr in place with O(n + 2^digitBits) extra space.
+     *
+     * @param digitBits 8 or 16. 16 means less passes, but bigger histograms
+     * @throws IllegalArgumentException if digitBits is not 8 or 16
+     */
+    public static void lsdSortBytes(int[] arr, int digitBits) {
+        checkDigitBits(digitBits);
+        lsdSortBytes(arr, new int[arr.length], digitBits);
+    }
+
+    /**
+     * Same as {@link #lsdSortBytes(int[])}, only the buffer for passes is
+     * the caller's, like in {@link MergeSort#sortBottomUp(int[], int[])}.
+     * Only the digit histograms are allocated, they don't depend on n.
+     *
+     * @param scratch buffer of at least arr.length, its content is overwritten
+     * @throws IllegalArgumentException if scratch is smaller than arr
+     */
+    public static void lsdSortBytes(int[] arr, int[] scratch) {
+        lsdSortBytes(arr, scratch, 8);
+    }
+
+    private static void lsdSortBytes(int[] arr, int[] scratch, int digitBits) {
+        if (scratch.length < arr.length)
+            throw new IllegalArgumentException("Scratch buffer is too small");
+        if (arr.length < 2)
+            return;
+
+        int passes = 32 / digitBits;
+        int mask = (1 << digitBits) - 1;
+        int[][] pos = new int[passes][1 << digitBits];
+        for (int value : arr) {
+            int key = value ^ Integer.MIN_VALUE;
+            for (int pass = 0; pass < passes; pass++) {
+                pos[pass][(key >>> (pass * digitBits)) & mask]++;
+            }
+        }
+
+        int[] src = arr;
+        int[] dst = scratch;
+        for (int pass = 0; pass < passes; pass++) {
+            int shift = pass * digitBits;
+            int[] count = pos[pass];
+            if (count[((src[0] ^ Integer.MIN_VALUE) >>> shift) & mask] == arr.length)
+                continue; // every key has the same digit, nothing to move
+
+            int carry = 0;
+            for (int j = 0; j < count.length; j++) {
+                int temp = count[j];
+                count[j] = carry;
+                carry += temp;
+            }
+
+            for (int i = 0; i < arr.length; i++) {
+                int value = src[i];
+                dst[count[((value ^ Integer.MIN_VALUE) >>> shift) & mask]++] = value;
+            }
+            int[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, arr.length);
+        }
+    }
+
+    /**
+     * Same as {@link #lsdSortBytes(long[], int)} with 8-bit digits.
+     */
+    public static void lsdSortBytes(long[] arr) {
+        lsdSortBytes(arr, 8);
+    }
+
+    /**
+     * Same as {@link #lsdSortBytes(int[], int)}, only for longs.
+     * A long has 8 or 4 digits.
+     *
+     * @param digitBits 8 or 16
+     * @throws IllegalArgumentException if digitBits is not 8 or 16
+     */
+    public static void lsdSortBytes(long[] arr, int digitBits) {
+        checkDigitBits(digitBits);
+        lsdSortBytes(arr, new long[arr.length], digitBits);
+    }
+
+    /**
+     * Same as {@link #lsdSortBytes(long[])}, only the buffer for passes is
+     * the caller's, like in {@link MergeSort#sortBottomUp(int[], int[])}.
+     * Only the digit histograms are allocated, they don't depend on n.
+     *
+     * @param scratch buffer of at least arr.length, its content is overwritten
+     * @throws IllegalArgumentException if scratch is smaller than arr
+     */
+    public static void lsdSortBytes(long[] arr, long[] scratch) {
+        lsdSortBytes(arr, scratch, 8);
+    }
+
+    private static void lsdSortBytes(long[] arr, long[] scratch, int digitBits) {
+        if (scratch.length < arr.length)
+            throw new IllegalArgumentException("Scratch buffer is too small");
+        if (arr.length < 2)
+            return;
+
+        int passes = 64 / digitBits;
+        int mask = (1 << digitBits) - 1;
+        int[][] pos = new int[passes][1 << digitBits];
+        for (long value : arr) {
+            long key = value ^ Long.MIN_VALUE;
+            for (int pass = 0; pass < passes; pass++) {
+                pos[pass][(int) (key >>> (pass * digitBits)) & mask]++;
+            }
+        }
+
+        long[] src = arr;
+        long[] dst = scratch;
+        for (int pass = 0; pass < passes; pass++) {
+            int shift = pass * digitBits;
+            int[] count = pos[pass];
+            if (count[(int) ((src[0] ^ Long.MIN_VALUE) >>> shift) & mask] == arr.length)
+                continue;
+
+            int carry = 0;
+            for (int j = 0; j < count.length; j++) {
+                int temp = count[j];
+                count[j] = carry;
+                carry += temp;
+            }
+
+            for (int i = 0; i < arr.length; i++) {
+                long value = src[i];
+                dst[count[(int) ((value ^ Long.MIN_VALUE) >>> shift) & mask]++] = value;
+            }
+            long[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, arr.length);
+        }
+    }
+
+    /**
+     * Same as {@link #lsdSortBytes(double[], int)} with 8-bit digits.
+     */
+    public static void lsdSortBytes(double[] arr) {
+        lsdSortBytes(arr, 8);
+    }
+
+    /**
+     * Same as {@link #lsdSortBytes(long[], int)}, only for doubles. The order
+     * is the same as in Double.compareTo: -0.0 goes before 0.0 and NaNs go
+     * to the end.
+     * <p>
+     * Bits of a double (IEEE 754) are sign, exponent, mantissa, so for
+     * positive doubles the bigger the bits as a number, the bigger the
+     * double. Negative ones differ from positive only in the sign bit,
+     * so the bigger the bits, the smaller the double. That's fixed with the
+     * key: positive doubles get their sign bit flipped (same as for longs),
+     * negative ones get all bits flipped. Now keys compared as unsigned
+     * longs are in the same order as doubles, -0.0 < 0.0 included, and
+     * NaN (all NaNs are one canonical NaN here) is bigger than infinity.
+     *
+     * @param digitBits 8 or 16
+     * @throws IllegalArgumentException if digitBits is not 8 or 16
+     */
+    public static void lsdSortBytes(double[] arr, int digitBits) {
+        checkDigitBits(digitBits);
+        lsdSortBytes(arr, new double[arr.length], digitBits);
+    }
+
+    /**
+     * Same as {@link #lsdSortBytes(double[])}, only the buffer for passes is
+     * the caller's, like in {@link MergeSort#sortBottomUp(int[], int[])}.
+     * Only the digit histograms are allocated, they don't depend on n.
+     *
+     * @param scratch buffer of at least arr.length, its content is overwritten
+     * @throws IllegalArgumentException if scratch is smaller than arr
+     */
+    public static void lsdSortBytes(double[] arr, double[] scratch) {
+        lsdSortBytes(arr, scratch, 8);
+    }
+
+    private static void lsdSortBytes(double[] arr, double[] scratch, int digitBits) {
+        if (scratch.length < arr.length)
+            throw new IllegalArgumentException("Scratch buffer is too small");
+        if (arr.length < 2)
+            return;
+
+        int passes = 64 / digitBits;
+        int mask = (1 << digitBits) - 1;
+        int[][] pos = new int[passes][1 << digitBits];
+        for (double value : arr) {
+            long key = sortableBits(value);
+            for (int pass = 0; pass < passes; pass++) {
+                pos[pass][(int) (key >>> (pass * digitBits)) & mask]++;
+            }
+        }
+
+        double[] src = arr;
+        double[] dst = scratch;
+        for (int pass = 0; pass < passes; pass++) {
+            int shift = pass * digitBits;
+            int[] count = pos[pass];
+            if (count[(int) (sortableBits(src[0]) >>> shift) & mask] == arr.length)
+                continue;
+
+            int carry = 0;
+            for (int j = 0; j < count.length; j++) {
+                int temp = count[j];
+                count[j] = carry;
+                carry += temp;
+            }
+
+            for (int i = 0; i < arr.length; i++) {
+                double value = src[i];
+                dst[count[(int) (sortableBits(value) >>> shift) & mask]++] = value;
+            }
+            double[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, arr.length);
+        }
+    }
+
+    /**
+     * @see #lsdSortBytes(double[], int)
+     */
+    private static long sortableBits(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+    }
+
+    /**
+     * Same as {@link #lsdSortBytes(int[])}, only for shorts.
+     * A short is 2 bytes, so it's 2 passes at most.
+     */
+    public static void lsdSortBytes(short[] arr) {
+        lsdSortBytes(arr, new short[arr.length]);
+    }
+
+    /**
+     * Same as {@link #lsdSortBytes(short[])}, only the buffer
+     * for passes is the caller's.
+     *
+     * @param scratch buffer of at least arr.length, its content is overwritten
+     * @throws IllegalArgumentException if scratch is smaller than arr
+     */
+    public static void lsdSortBytes(short[] arr, short[] scratch) {
+        if (scratch.length < arr.length)
+            throw new IllegalArgumentException("Scratch buffer is too small");
+        if (arr.length < 2)
+            return;
+
+        int[][] pos = new int[2][256];
+        for (short value : arr) {
+            int key = (value ^ Short.MIN_VALUE) & 0xFFFF;
+            pos[0][key & 0xFF]++;
+            pos[1][key >>> 8]++;
+        }
+
+        short[] src = arr;
+        short[] dst = scratch;
+        for (int pass = 0; pass < 2; pass++) {
+            int shift = pass * 8;
+            int[] count = pos[pass];
+            if (count[(((src[0] ^ Short.MIN_VALUE) & 0xFFFF) >>> shift) & 0xFF] == arr.length)
+                continue;
+
+            int carry = 0;
+            for (int j = 0; j < count.length; j++) {
+                int temp = count[j];
+                count[j] = carry;
+                carry += temp;
+            }
+
+            for (int i = 0; i < arr.length; i++) {
+                short value = src[i];
+                dst[count[(((value ^ Short.MIN_VALUE) & 0xFFFF) >>> shift) & 0xFF]++] = value;
+            }
+            short[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, arr.length);
+        }
+    }
+
+    /**
+     * Same as {@link #lsdSortBytes(int[])}, only for bytes. A byte is
+     * a single digit, and the digit is the value itself, so one counting
+     * pass is the whole radix sort.
+     *
+     * @see CountingSort#simpleSort(byte[])
+     */
+    public static void lsdSortBytes(byte[] arr) {
+        CountingSort.simpleSort(arr);
+    }
+
+    /**
+     * MSD (Most Significant Digit) radix sort, in place. Also known as
+     * American flag sort.
+     * <p>
+     * Goes the other way around from LSD: first it splits all numbers into
+     * 256 buckets by their highest byte. Every bucket is then a separate
+     * problem, which we solve the same way by the next byte, and so on.
+     * <p>
+     * The trick is to do it without the output array. After counting
+     * digits we know where every bucket starts and ends. We keep a "next"
+     * pointer for every bucket: the first index in it that doesn't yet
+     * hold an element of that bucket. Take the element at next[d], find its
+     * bucket b, and swap it with the element at next[b] (b's pointer moves
+     * forward, that place is done). Now we're holding someone else's element,
+     * repeat until we're holding an element of bucket d. Every swap puts at
+     * least one element in its final bucket, so it's O(n) per level.
+     * <p>
+     * Space: O(1) per element, only two small tables per recursive call.
+     * Not stable. Small buckets go to {@link InsertionSort#sort(int[], int, int)},
+     * or to {@link SortingNetwork} if they're 16 or less.
+     */
+    public static void msdSort(int[] arr) {
+        msdSort(arr, 0, arr.length, 24);
+    }
+
+    private static void msdSort(int[] arr, int from, int to, int shift) {
+        if (to - from <= SortingNetwork.MAX_LENGTH) {
+            SortingNetwork.sort(arr, from, to - from);
+            return;
+        }
+        if (to - from <= MSD_CUTOFF) {
+            InsertionSort.sort(arr, from, to);
+            return;
+        }
+
+        int[] next = new int[257];
+        for (int i = from; i < to; i++) {
+            next[msdDigit(arr[i], shift) + 1]++;
+        }
+        int[] end = new int[256];
+        next[0] = from;
+        for (int d = 0; d < 256; d++) {
+            next[d + 1] += next[d];
+            end[d] = next[d + 1];
+        }
+
+        for (int d = 0; d < 256; d++) {
+            while (next[d] < end[d]) {
+                int value = arr[next[d]];
+                int bucket = msdDigit(value, shift);
+                while (bucket != d) { // holding someone else's element
+                    int temp = arr[next[bucket]];
+                    arr[next[bucket]++] = value;
+                    value = temp;
+                    bucket = msdDigit(value, shift);
+                }
+                arr[next[d]++] = value;
+            }
+        }
+
+        if (shift == 0) return; // last byte, buckets are sorted
+        int start = from;
+        for (int d = 0; d < 256; d++) {
+            if (end[d] - start > 1) {
+                msdSort(arr, start, end[d], shift - 8);
+            }
+            start = end[d];
+        }
+    }
+
+    /**
+     * Sign bit is flipped, so negative numbers go to the first buckets.
+     */
+    private static int msdDigit(int value, int shift) {
+        return ((value ^ Integer.MIN_VALUE) >>> shift) & 0xFF;
+    }
+
+    /**
+     * Same as {@link #msdDigit(int, int)}, for 8-byte keys of {@link OffHeapSort}.
+     */
+    static int msdDigit(long value, int shift) {
+        return (int) ((value ^ Long.MIN_VALUE) >>> shift) & 0xFF;
+    }
+
+    /**
+     * Same as {@link #msdSort(int[])}, only for keys of any length, like
+     * strings or serialized rows. Keys are sorted lexicographically, bytes
+     * are unsigned. Digit at depth d is the d-th byte of the key. Keys
+     * that are shorter than d go to a separate bucket before all others
+     * (a prefix goes before the longer key), that bucket is already sorted,
+     * since all keys in it are equal.
+     * <p>
+     * Keys often share a long prefix (serialized rows of the same table,
+     * URLs of the same site). While all keys have the same byte, they'd all
+     * go to one bucket, so there's nothing to count or move: we just go
+     * to the next byte in a loop. This way recursion only goes deeper
+     * when keys are actually split, not with every byte of the prefix.
+     */
+    public static void msdSort(byte[][] arr) {
+        msdSort(arr, 0, arr.length, 0);
+    }
+
+    private static void msdSort(byte[][] arr, int from, int to, int depth) {
+        if (to - from <= MSD_CUTOFF) {
+            InsertionSort.sort(arr, from, to, depth);
+            return;
+        }
+
+        while (sameDigit(arr, from, to, depth)) {
+            if (depth >= arr[from].length) return; // all keys have ended, they're equal
+            depth++;
+        }
+
+        // bucket 0 - key has ended, 1..256 - byte value + 1
+        int[] next = new int[258];
+        for (int i = from; i < to; i++) {
+            next[msdDigit(arr[i], depth) + 1]++;
+        }
+        int[] end = new int[257];
+        next[0] = from;
+        for (int d = 0; d < 257; d++) {
+            next[d + 1] += next[d];
+            end[d] = next[d + 1];
+        }
+
+        for (int d = 0; d < 257; d++) {
+            while (next[d] < end[d]) {
+                byte[] key = arr[next[d]];
+                int bucket = msdDigit(key, depth);
+                while (bucket != d) {
+                    byte[] temp = arr[next[bucket]];
+                    arr[next[bucket]++] = key;
+                    key = temp;
+                    bucket = msdDigit(key, depth);
+                }
+                arr[next[d]++] = key;
+            }
+        }
+
+        int start = end[0]; // keys that have ended are all equal
+        for (int d = 1; d < 257; d++) {
+            if (end[d] - start > 1) {
+                msdSort(arr, start, end[d], depth + 1);
+            }
+            start = end[d];
+        }
+    }
+
+    private static int msdDigit(byte[] key, int depth) {
+        return depth < key.length ? (key[depth] & 0xFF) + 1 : 0;
+    }
+
+    /**
+     * @return true if all keys of [from, to) go to the same bucket at this depth
+     */
+    private static boolean sameDigit(byte[][] arr, int from, int to, int depth) {
+        int digit = msdDigit(arr[from], depth);
+        for (int i = from + 1; i < to; i++) {
+            if (msdDigit(arr[i], depth) != digit) return false;
+        }
+        return true;
+    }
+
+    private static void checkDigitBits(int digitBits) {
+        if (digitBits != 8 && digitBits != 16)
+            throw new IllegalArgumentException("Digit has to be 8 or 16 bits");
+    }
+
     /**
      * @return one digit for given base. For example, in number 345
      * the base 1 digit - 5, base 10 - 4 (cos 40), base 100 - 3 (cos 300)
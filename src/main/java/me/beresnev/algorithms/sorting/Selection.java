@@ -0,0 +1,255 @@
+package me.beresnev.algorithms.sorting;
+
+import java.util.PrimitiveIterator;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.0
+ * @since 18.10.26.
+ */
+public class Selection {
+    // ranges longer than this get their pivot from a sample (Floyd-Rivest)
+    private static final int SAMPLING_CUTOFF = 600;
+
+    /**
+     * Selection, partial sort and top k
+     * <p>
+     * Time complexity:
+     * - nthElement: O(n) average, O(n log n) worst
+     * - partialSort: O(n + k log k)
+     * - topK: O(n log k)
+     * Space complexity:
+     * - O(1) for nthElement and partialSort, O(k) for topK
+     * <p>
+     * When we only need the biggest 100 out of 10M, sorting all 10M is
+     * a waste. All we need is to know which 100 those are, and then sort
+     * only them.
+     * <p>
+     * nthElement is quick select: partition around a pivot like quick sort
+     * does, but then go only into the part that has n in it, the other part
+     * is never looked at again. On average that's n + n/2 + n/4 + ... = 2n.
+     * <p>
+     * For big ranges the pivot is picked the Floyd-Rivest way: take a small
+     * sample of the range around n, and recursively select the n-th element
+     * of the sample. It's very close to the real n-th element, so after
+     * partitioning around it, the part with n in it is tiny. That's about
+     * n + min(n, length - n) comparisons instead of ~3n.
+     * <p>
+     * Like in introsort, if partitioning keeps going badly, the range
+     * left is sorted with heap sort, so the worst case is O(n log n).
+     *
+     * @see QuickSort
+     */
+    private Selection() {
+    }
+
+    /**
+     * Rearranges arr so that arr[n] is the element that would be there
+     * if arr was sorted, everything before it is <= and everything after
+     * it is >=. Neither side is sorted.
+     *
+     * @param n index in the sorted order, 0 is the min, length - 1 is the max
+     * @return arr[n]
+     * @throws IllegalArgumentException if n is not an index of arr
+     */
+    public static int nthElement(int[] arr, int n) {
+        if (n < 0 || n >= arr.length)
+            throw new IllegalArgumentException("n is out of the array");
+
+        select(arr, 0, arr.length - 1, n, depthLimit(arr.length));
+        return arr[n];
+    }
+
+    /**
+     * Rearranges arr so that [0, k) are the k smallest elements in sorted
+     * order. The rest [k, length) is in no particular order.
+     * First the k-th element is selected, so the k smallest end up
+     * in [0, k), and then only they are sorted with heap sort.
+     *
+     * @param k how many smallest elements to sort
+     * @throws IllegalArgumentException if k is negative or more than arr.length
+     */
+    public static void partialSort(int[] arr, int k) {
+        if (k < 0 || k > arr.length)
+            throw new IllegalArgumentException("k is out of the array");
+        if (k == 0) return;
+
+        if (k == arr.length) {
+            HeapSort.sort(arr, 0, k);
+            return;
+        }
+        select(arr, 0, arr.length - 1, k - 1, depthLimit(arr.length));
+        HeapSort.sort(arr, 0, k - 1); // arr[k - 1] is in its place already
+    }
+
+    /**
+     * The k biggest elements of arr, arr itself isn't changed.
+     *
+     * @param k how many biggest elements to return
+     * @return new array of k elements, biggest first
+     * @throws IllegalArgumentException if k is negative or more than arr.length
+     */
+    public static int[] topK(int[] arr, int k) {
+        if (k < 0 || k > arr.length)
+            throw new IllegalArgumentException("k is out of the array");
+
+        int[] heap = new int[k];
+        int size = 0;
+        for (int value : arr) {
+            size = offer(heap, size, value);
+        }
+        return drain(heap, size);
+    }
+
+    /**
+     * Same as {@link #topK(int[], int)}, only values come one by one, and
+     * there's no need to keep them all. Keeps a min heap of the k biggest
+     * values seen so far: the root is the smallest of them, so a new value
+     * either is smaller than the root and is thrown away, or replaces the
+     * root and sinks. Only k values are kept in memory at any time.
+     *
+     * @param values any number of values, read until exhausted
+     * @param k      how many biggest elements to return
+     * @return new array of min(k, # of values) elements, biggest first
+     * @throws IllegalArgumentException if k is negative
+     */
+    public static int[] topK(PrimitiveIterator.OfInt values, int k) {
+        if (k < 0)
+            throw new IllegalArgumentException("k is negative");
+
+        int[] heap = new int[k];
+        int size = 0;
+        while (values.hasNext()) {
+            size = offer(heap, size, values.nextInt());
+        }
+        return drain(heap, size);
+    }
+
+    /**
+     * Adds the value to the bounded min heap if it's among the k biggest.
+     *
+     * @return new size of the heap
+     */
+    private static int offer(int[] heap, int size, int value) {
+        if (size < heap.length) {
+            int child = size;
+            while (child > 0) { // sift up
+                int parent = (child - 1) / 2;
+                if (heap[parent] <= value) break;
+                heap[child] = heap[parent];
+                child = parent;
+            }
+            heap[child] = value;
+            return size + 1;
+        }
+        if (size > 0 && value > heap[0]) {
+            siftDown(heap, value, size);
+        }
+        return size;
+    }
+
+    /**
+     * Heap sort of the min heap: the smallest goes to the end every time,
+     * so the result is biggest first.
+     */
+    private static int[] drain(int[] heap, int size) {
+        for (int last = size - 1; last > 0; last--) {
+            int min = heap[0];
+            siftDown(heap, heap[last], last);
+            heap[last] = min;
+        }
+        if (size == heap.length) return heap;
+
+        int[] result = new int[size];
+        System.arraycopy(heap, 0, result, 0, size);
+        return result;
+    }
+
+    /**
+     * Puts value in place of the root of a min heap of the given size.
+     */
+    private static void siftDown(int[] heap, int value, int size) {
+        int branch = 0;
+        int child;
+        while ((child = 2 * branch + 1) < size) {
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= value) break;
+            heap[branch] = heap[child];
+            branch = child;
+        }
+        heap[branch] = value;
+    }
+
+    /**
+     * Floyd-Rivest select of n in [left, right], both inclusive.
+     * Every partition decreases the depth, if it runs
+     * out, what's left of the range is heap sorted.
+     */
+    private static void select(int[] a, int left, int right, int n, int depth) {
+        while (right > left) {
+            if (--depth < 0) {
+                HeapSort.sort(a, left, right + 1);
+                return;
+            }
+
+            int length = right - left + 1;
+            if (length > SAMPLING_CUTOFF) {
+                // sample of size s around n, so that the n-th element
+                // of the range is most likely between newLeft and newRight
+                int i = n - left + 1;
+                double z = Math.log(length);
+                double s = 0.5 * Math.exp(2 * z / 3);
+                double sd = 0.5 * Math.sqrt(z * s * (length - s) / length) * Math.signum(i - length / 2.0);
+                int newLeft = Math.max(left, (int) (n - i * s / length + sd));
+                int newRight = Math.min(right, (int) (n + (length - i) * s / length + sd));
+                select(a, newLeft, newRight, n, depth);
+            } else {
+                // no sample, median of 3 becomes the pivot
+                int mid = (left + right) >>> 1;
+                if (a[mid] < a[left]) swap(a, mid, left);
+                if (a[right] < a[left]) swap(a, right, left);
+                if (a[right] < a[mid]) swap(a, right, mid);
+                swap(a, mid, n);
+            }
+
+            // a[n] is the pivot, partition [left, right] around it
+            int pivot = a[n];
+            int i = left;
+            int j = right;
+            swap(a, left, n);
+            if (a[right] > pivot) swap(a, right, left);
+            while (i < j) {
+                swap(a, i, j);
+                i++;
+                j--;
+                while (a[i] < pivot) i++;
+                while (a[j] > pivot) j--;
+            }
+            if (a[left] == pivot) {
+                swap(a, left, j);
+            } else {
+                j++;
+                swap(a, j, right);
+            }
+
+            // pivot is at j now, its final place
+            if (j <= n) left = j + 1;
+            if (n <= j) right = j - 1;
+        }
+    }
+
+    /**
+     * @return 2 * log2(length)
+     */
+    private static int depthLimit(int length) {
+        return 2 * (32 - Integer.numberOfLeadingZeros(Math.max(length, 1)));
+    }
+
+    private static void swap(int[] a, int i, int j) {
+        int temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+}
@@ -0,0 +1,191 @@
+package me.beresnev.algorithms.sorting;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.0
+ * @since 18.10.26.
+ */
+public class SortingNetwork {
+    /**
+     * Longest range there's a network for.
+     */
+    public static final int MAX_LENGTH = 16;
+
+    /**
+     * NETWORKS[n] is the network for n elements: pairs of indices
+     * (i, j), i < j, to compare and exchange, in this order.
+     * Batcher's merge exchange (Knuth, vol. 3, 5.2.2, algorithm M),
+     * checked on all 2^n inputs of zeros and ones.
+     */
+    private static final byte[][] NETWORKS = {
+            {}, // 0
+            {}, // 1
+            {0, 1}, // 2
+            {0, 2, 0, 1, 1, 2}, // 3
+            {0, 2, 1, 3, 0, 1, 2, 3, 1, 2}, // 4
+            {0, 4, 0, 2, 1, 3, 2, 4, 0, 1, 2, 3, 1, 4, 1, 2, 3, 4}, // 5
+            {0, 4, 1, 5, 0, 2, 1, 3, 2, 4, 3, 5, 0, 1, 2, 3, 4, 5, 1, 4, 1, 2, 3, 4}, // 6
+            {0, 4, 1, 5, 2, 6, 0, 2, 1, 3, 4, 6, 2, 4, 3, 5, 0, 1, 2, 3, 4, 5, 1, 4, 3, 6,
+                    1, 2, 3, 4, 5, 6}, // 7
+            {0, 4, 1, 5, 2, 6, 3, 7, 0, 2, 1, 3, 4, 6, 5, 7, 2, 4, 3, 5, 0, 1, 2, 3, 4, 5,
+                    6, 7, 1, 4, 3, 6, 1, 2, 3, 4, 5, 6}, // 8
+            {0, 8, 0, 4, 1, 5, 2, 6, 3, 7, 4, 8, 0, 2, 1, 3, 4, 6, 5, 7, 2, 8, 2, 4, 3, 5,
+                    6, 8, 0, 1, 2, 3, 4, 5, 6, 7, 1, 8, 1, 4, 3, 6, 5, 8, 1, 2, 3, 4, 5, 6, 7, 8}, // 9
+            {0, 8, 1, 9, 0, 4, 1, 5, 2, 6, 3, 7, 4, 8, 5, 9, 0, 2, 1, 3, 4, 6, 5, 7, 2, 8,
+                    3, 9, 2, 4, 3, 5, 6, 8, 7, 9, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 1, 8, 1, 4, 3, 6,
+                    5, 8, 1, 2, 3, 4, 5, 6, 7, 8}, // 10
+            {0, 8, 1, 9, 2, 10, 0, 4, 1, 5, 2, 6, 3, 7, 4, 8, 5, 9, 6, 10, 0, 2, 1, 3, 4, 6,
+                    5, 7, 8, 10, 2, 8, 3, 9, 2, 4, 3, 5, 6, 8, 7, 9, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9,
+                    1, 8, 3, 10, 1, 4, 3, 6, 5, 8, 7, 10, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10}, // 11
+            {0, 8, 1, 9, 2, 10, 3, 11, 0, 4, 1, 5, 2, 6, 3, 7, 4, 8, 5, 9, 6, 10, 7, 11, 0, 2,
+                    1, 3, 4, 6, 5, 7, 8, 10, 9, 11, 2, 8, 3, 9, 2, 4, 3, 5, 6, 8, 7, 9, 0, 1, 2, 3,
+                    4, 5, 6, 7, 8, 9, 10, 11, 1, 8, 3, 10, 1, 4, 3, 6, 5, 8, 7, 10, 1, 2, 3, 4, 5, 6,
+                    7, 8, 9, 10}, // 12
+            {0, 8, 1, 9, 2, 10, 3, 11, 4, 12, 0, 4, 1, 5, 2, 6, 3, 7, 8, 12, 4, 8, 5, 9,
+                    6, 10, 7, 11, 0, 2, 1, 3, 4, 6, 5, 7, 8, 10, 9, 11, 2, 8, 3, 9, 6, 12, 2, 4,
+                    3, 5, 6, 8, 7, 9, 10, 12, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 1, 8, 3, 10,
+                    5, 12, 1, 4, 3, 6, 5, 8, 7, 10, 9, 12, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12}, // 13
+            {0, 8, 1, 9, 2, 10, 3, 11, 4, 12, 5, 13, 0, 4, 1, 5, 2, 6, 3, 7, 8, 12, 9, 13,
+                    4, 8, 5, 9, 6, 10, 7, 11, 0, 2, 1, 3, 4, 6, 5, 7, 8, 10, 9, 11, 2, 8, 3, 9,
+                    6, 12, 7, 13, 2, 4, 3, 5, 6, 8, 7, 9, 10, 12, 11, 13, 0, 1, 2, 3, 4, 5, 6, 7,
+                    8, 9, 10, 11, 12, 13, 1, 8, 3, 10, 5, 12, 1, 4, 3, 6, 5, 8, 7, 10, 9, 12, 1, 2,
+                    3, 4, 5, 6, 7, 8, 9, 10, 11, 12}, // 14
+            {0, 8, 1, 9, 2, 10, 3, 11, 4, 12, 5, 13, 6, 14, 0, 4, 1, 5, 2, 6, 3, 7, 8, 12,
+                    9, 13, 10, 14, 4, 8, 5, 9, 6, 10, 7, 11, 0, 2, 1, 3, 4, 6, 5, 7, 8, 10, 9, 11,
+                    12, 14, 2, 8, 3, 9, 6, 12, 7, 13, 2, 4, 3, 5, 6, 8, 7, 9, 10, 12, 11, 13, 0, 1,
+                    2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 1, 8, 3, 10, 5, 12, 7, 14, 1, 4, 3, 6,
+                    5, 8, 7, 10, 9, 12, 11, 14, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14}, // 15
+            {0, 8, 1, 9, 2, 10, 3, 11, 4, 12, 5, 13, 6, 14, 7, 15, 0, 4, 1, 5, 2, 6, 3, 7,
+                    8, 12, 9, 13, 10, 14, 11, 15, 4, 8, 5, 9, 6, 10, 7, 11, 0, 2, 1, 3, 4, 6, 5, 7,
+                    8, 10, 9, 11, 12, 14, 13, 15, 2, 8, 3, 9, 6, 12, 7, 13, 2, 4, 3, 5, 6, 8, 7, 9,
+                    10, 12, 11, 13, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 1, 8,
+                    3, 10, 5, 12, 7, 14, 1, 4, 3, 6, 5, 8, 7, 10, 9, 12, 11, 14, 1, 2, 3, 4, 5, 6,
+                    7, 8, 9, 10, 11, 12, 13, 14}, // 16
+    };
+
+    /**
+     * Sorting networks
+     * <p>
+     * Time complexity:
+     * - O(c(n)) compare-exchanges, c(16) = 63, no matter what the input is
+     * <p>
+     * Space complexity:
+     * - O(1)
+     * <p>
+     * A sorting network is a fixed list of pairs (i, j). For every pair, if
+     * a[i] > a[j], they are swapped (compare-exchange). Which pairs, and in
+     * which order, doesn't depend on the data at all, and yet after the last
+     * pair the array is sorted. A network is correct if it sorts every
+     * input of zeros and ones (0-1 principle), so for 16 elements there are
+     * only 2^16 inputs to check.
+     * <p>
+     * Why bother: insertion sort on 4-16 elements is fast in theory, but
+     * every "is it bigger?" is a branch the CPU can't predict on random data,
+     * and a mispredicted branch costs more than a few comparisons. Here
+     * compare-exchange is a = min(x, y), b = max(x, y), which the JIT
+     * compiles into conditional moves without branches. The only branch
+     * left is the loop over the pairs, and it's the same every time.
+     * For floats it's x < y ? x : y instead of Math.min, see
+     * {@link #sort(float[], int, int)}.
+     * <p>
+     * Divide-and-conquer sorts use it for their smallest ranges.
+     *
+     * @see QuickSort
+     * @see MergeSort
+     */
+    private SortingNetwork() {
+    }
+
+    /**
+     * Sorts a[offset, offset + length).
+     *
+     * @param length 0 ... 16
+     * @throws IllegalArgumentException if length is negative or more than 16
+     */
+    public static void sort(int[] a, int offset, int length) {
+        byte[] network = network(length);
+        for (int k = 0; k < network.length; k += 2) {
+            int i = offset + network[k];
+            int j = offset + network[k + 1];
+            int x = a[i];
+            int y = a[j];
+            a[i] = Math.min(x, y);
+            a[j] = Math.max(x, y);
+        }
+    }
+
+    /**
+     * Same as {@link #sort(int[], int, int)}, only for longs.
+     */
+    public static void sort(long[] a, int offset, int length) {
+        byte[] network = network(length);
+        for (int k = 0; k < network.length; k += 2) {
+            int i = offset + network[k];
+            int j = offset + network[k + 1];
+            long x = a[i];
+            long y = a[j];
+            a[i] = Math.min(x, y);
+            a[j] = Math.max(x, y);
+        }
+    }
+
+    /**
+     * Same as {@link #sort(int[], int, int)}, only for floats. The order is the
+     * same as in Float.compareTo: -0.0 before 0.0, NaNs at the end.
+     * <p>
+     * Math.min and Math.max for floats aren't simple selects: they check
+     * for NaN and for zeros of different signs inside, and those checks are
+     * branches. So, same as {@link DoubleTotalOrder} does for doubles, NaNs
+     * are moved to the end first, every -0.0 is replaced with 0.0, and the
+     * network runs on plain x < y selects. Zeros are next to each other
+     * after that, so the first of them become -0.0 again.
+     * <p>
+     * Only the compare-exchanges are branch-free. The NaN and -0.0 passes,
+     * and the search for zeros after the network, do branch on every value.
+     * NaNs and -0.0 are rare, so those branches almost always go the same
+     * way and are predicted well.
+     */
+    public static void sort(float[] a, int offset, int length) {
+        network(length);
+        int end = offset + length;
+        for (int i = end - 1; i >= offset; i--) {
+            float value = a[i];
+            if (value != value) { // only NaN isn't equal to itself
+                a[i] = a[--end];
+                a[end] = value;
+            }
+        }
+        int negativeZeros = 0;
+        for (int i = offset; i < end; i++) {
+            if (a[i] == 0.0f && Float.floatToRawIntBits(a[i]) < 0) {
+                a[i] = 0.0f;
+                negativeZeros++;
+            }
+        }
+
+        byte[] network = NETWORKS[end - offset];
+        for (int k = 0; k < network.length; k += 2) {
+            int i = offset + network[k];
+            int j = offset + network[k + 1];
+            float x = a[i];
+            float y = a[j];
+            a[i] = x < y ? x : y;
+            a[j] = x < y ? y : x;
+        }
+
+        if (negativeZeros == 0) return;
+        int zero = offset;
+        while (a[zero] < 0.0f) {
+            zero++;
+        }
+        for (int i = 0; i < negativeZeros; i++) {
+            a[zero + i] = -0.0f;
+        }
+    }
+
+    private static byte[] network(int length) {
+        if (length < 0 || length > MAX_LENGTH)
+            throw new IllegalArgumentException("No sorting network for " + length + " elements");
+        return NETWORKS[length];
+    }
+}
@@ -1,17 +1,26 @@
 package me.beresnev.algorithms.sorting;
 
 import me.beresnev.algorithms.graphs.DFS;
+import me.beresnev.datastructures.DirectedGraph;
 import me.beresnev.datastructures.Graph;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 /**
  * @author Ignat Beresnev
- * @version 1.0
+ * @version 1.2
  * @since 08.03.17.
  */
 public class TopologicalSort {
+    // frontier slices and vertex ranges smaller than this aren't split between threads
+    private static final int MIN_CHUNK = 1 << 11;
 
     /**
      * To do perform topological search on a graph,
@@ -50,4 +59,283 @@ public class TopologicalSort {
         Collections.reverse(result.order);
         return result.order;
     }
+
+    /**
+     * Kahn's algorithm. Unlike DFS, there's no recursion, so it doesn't
+     * care how deep the graph is, and it tells which vertices can be
+     * done at the same time.
+     * <p>
+     * In-degree of a vertex is the number of edges coming into it, the
+     * number of things that must be done before it. Vertices with in-degree
+     * 0 can be done right away, they're level 0. Once they're done, their
+     * edges don't count anymore, so we decrease in-degrees of their
+     * successors. The ones that got to 0 are level 1, and so on. Nothing
+     * in one level depends on anything else in the same level, so a
+     * scheduler can run the whole level at once.
+     * <p>
+     * If some vertices never get to in-degree 0, they're on a cycle
+     * (or after one), and there's no order at all.
+     * <p>
+     * Time = O(V+E), space = O(V)
+     *
+     * @return levels in order, each one is an array of vertices
+     * @throws CycleException if there's a cycle in the graph
+     */
+    public static List<int[]> levels(DirectedGraph g) {
+        int n = g.getVertexCount();
+        int[] inDegree = new int[n];
+        for (int e = 0; e < g.getEdgeCount(); e++) {
+            inDegree[g.getTarget(e)]++;
+        }
+
+        List<int[]> levels = new ArrayList<>();
+        int[] frontier = sources(inDegree);
+        int done = 0;
+        while (frontier.length > 0) {
+            levels.add(frontier);
+            done += frontier.length;
+
+            IntList next = new IntList();
+            for (int v : frontier) {
+                for (int e = g.getFirstEdge(v); e < g.getFirstEdge(v + 1); e++) {
+                    int w = g.getTarget(e);
+                    if (--inDegree[w] == 0) next.add(w);
+                }
+            }
+            frontier = next.toArray();
+        }
+
+        if (done < n) throw new CycleException(findCycle(g, inDegree));
+        return levels;
+    }
+
+    /**
+     * Same as {@link #levels(DirectedGraph)}, only every level is processed
+     * by many threads. The frontier is split into slices, each thread
+     * goes through successors of its slice and decrements in-degrees.
+     * Many threads can decrement the same in-degree, so they're atomic:
+     * decrementAndGet returns 0 to exactly one thread, that thread puts the
+     * vertex into its part of the next level. Parts are joined when all
+     * threads are done, that's the barrier between levels.
+     * In-degrees are counted in parallel the same way.
+     *
+     * @param pool pool to run the threads in
+     * @return levels in order, each one is an array of vertices
+     * @throws CycleException if there's a cycle in the graph
+     */
+    public static List<int[]> levels(DirectedGraph g, ForkJoinPool pool) {
+        g.freeze(); // read-only from now on, safe to share between threads
+        int n = g.getVertexCount();
+        AtomicIntegerArray inDegree = new AtomicIntegerArray(n);
+        pool.invoke(new InDegreeTask(g, inDegree, 0, n));
+
+        int[] degrees = new int[n];
+        for (int v = 0; v < n; v++) {
+            degrees[v] = inDegree.get(v);
+        }
+        List<int[]> levels = new ArrayList<>();
+        int[] frontier = sources(degrees);
+        int done = 0;
+        while (frontier.length > 0) {
+            levels.add(frontier);
+            done += frontier.length;
+            frontier = pool.invoke(new FrontierTask(g, inDegree, frontier, 0, frontier.length));
+        }
+
+        if (done < n) {
+            for (int v = 0; v < n; v++) {
+                degrees[v] = inDegree.get(v);
+            }
+            throw new CycleException(findCycle(g, degrees));
+        }
+        return levels;
+    }
+
+    /**
+     * Levels of {@link #levels(DirectedGraph)} one after another.
+     *
+     * @return all vertices, every edge goes from left to right
+     * @throws CycleException if there's a cycle in the graph
+     */
+    public static int[] sort(DirectedGraph g) {
+        int[] order = new int[g.getVertexCount()];
+        int i = 0;
+        for (int[] level : levels(g)) {
+            System.arraycopy(level, 0, order, i, level.length);
+            i += level.length;
+        }
+        return order;
+    }
+
+    private static int[] sources(int[] inDegree) {
+        IntList sources = new IntList();
+        for (int v = 0; v < inDegree.length; v++) {
+            if (inDegree[v] == 0) sources.add(v);
+        }
+        return sources.toArray();
+    }
+
+    /**
+     * A vertex that's left with in-degree > 0 has a predecessor that's
+     * left too. So if we keep going to any such predecessor, we never
+     * get stuck, and with a finite number of vertices we come back to
+     * one we've seen. Everything from there is a cycle, backwards.
+     *
+     * @return vertices of a cycle, in the order of the edges
+     */
+    private static int[] findCycle(DirectedGraph g, int[] inDegree) {
+        int n = g.getVertexCount();
+        int[] predecessor = new int[n];
+        int start = -1;
+        for (int v = 0; v < n; v++) {
+            if (inDegree[v] == 0) continue;
+            start = v;
+            for (int e = g.getFirstEdge(v); e < g.getFirstEdge(v + 1); e++) {
+                int w = g.getTarget(e);
+                if (inDegree[w] > 0) predecessor[w] = v;
+            }
+        }
+
+        int[] step = new int[n]; // when the walk came to a vertex, 0 - never
+        int v = start;
+        int steps = 0;
+        while (step[v] == 0) {
+            step[v] = ++steps;
+            v = predecessor[v];
+        }
+
+        int[] cycle = new int[steps - step[v] + 1];
+        for (int i = cycle.length - 1; i >= 0; i--) {
+            cycle[i] = v;
+            v = predecessor[v];
+        }
+        return cycle;
+    }
+
+    /**
+     * Thrown if the graph has a cycle, so there's no topological order.
+     */
+    public static class CycleException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] cycle;
+
+        CycleException(int[] cycle) {
+            this("Graph has a cycle of " + cycle.length + " vertices, going through " + cycle[0], cycle);
+        }
+
+        CycleException(String message, int[] cycle) {
+            super(message);
+            this.cycle = cycle;
+        }
+
+        /**
+         * @return vertices of one of the cycles, every one has an
+         * edge to the next one, and the last one to the first one.
+         * If the cycle was found when adding an edge, the last edge
+         * is that edge, and it's not in the graph
+         * @see DynamicTopologicalOrder#addEdge(int, int)
+         */
+        public int[] getCycle() {
+            return Arrays.copyOf(cycle, cycle.length);
+        }
+    }
+
+    /**
+     * Counts in-degrees of all successors of vertices [from, to).
+     */
+    private static class InDegreeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final DirectedGraph g;
+        private final AtomicIntegerArray inDegree;
+        private final int from;
+        private final int to;
+
+        InDegreeTask(DirectedGraph g, AtomicIntegerArray inDegree, int from, int to) {
+            this.g = g;
+            this.inDegree = inDegree;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= MIN_CHUNK) {
+                for (int e = g.getFirstEdge(from); e < g.getFirstEdge(to); e++) {
+                    inDegree.incrementAndGet(g.getTarget(e));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new InDegreeTask(g, inDegree, from, mid),
+                    new InDegreeTask(g, inDegree, mid, to));
+        }
+    }
+
+    /**
+     * Processes frontier[from, to).
+     *
+     * @return vertices whose in-degree got to 0 here, this slice's part of the next level
+     */
+    private static class FrontierTask extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final DirectedGraph g;
+        private final AtomicIntegerArray inDegree;
+        private final int[] frontier;
+        private final int from;
+        private final int to;
+
+        FrontierTask(DirectedGraph g, AtomicIntegerArray inDegree, int[] frontier, int from, int to) {
+            this.g = g;
+            this.inDegree = inDegree;
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= MIN_CHUNK) {
+                IntList next = new IntList();
+                for (int i = from; i < to; i++) {
+                    int v = frontier[i];
+                    for (int e = g.getFirstEdge(v); e < g.getFirstEdge(v + 1); e++) {
+                        int w = g.getTarget(e);
+                        if (inDegree.decrementAndGet(w) == 0) next.add(w);
+                    }
+                }
+                return next.toArray();
+            }
+            int mid = (from + to) >>> 1;
+            FrontierTask right = new FrontierTask(g, inDegree, frontier, mid, to);
+            right.fork();
+            int[] leftPart = new FrontierTask(g, inDegree, frontier, from, mid).compute();
+            int[] rightPart = right.join();
+
+            int[] next = Arrays.copyOf(leftPart, leftPart.length + rightPart.length);
+            System.arraycopy(rightPart, 0, next, leftPart.length, rightPart.length);
+            return next;
+        }
+    }
+
+    /**
+     * Growing array of ints, so that levels aren't lists of Integer.
+     */
+    private static class IntList {
+        private int[] items = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(items, size);
+        }
+    }
 }
@@ -0,0 +1,121 @@
+package me.beresnev.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.0
+ * @since 18.10.26.
+ */
+public class DirectedGraph {
+    private final int vertexCount;
+
+    // edges as they were added, edge i is from[i] -> to[i]
+    private int[] from = new int[16];
+    private int[] to = new int[16];
+    private int edgeCount;
+
+    // compressed adjacency, null if edges were added since it was built
+    private int[] offsets;
+    private int[] targets;
+
+    /**
+     * Directed graph of vertices 0 ... vertexCount - 1. Unlike {@link Graph},
+     * an edge goes one way only, and vertices are ints instead of objects,
+     * so a graph of a million vertices is a few int arrays instead of
+     * a million objects with a HashSet each.
+     * <p>
+     * Edges are added to two plain arrays. When they are read, the
+     * arrays are turned into the compressed sparse row (CSR) form:
+     * successors of all vertices in one array, the ones of vertex v
+     * in [offsets[v], offsets[v + 1]). Building it is a counting sort
+     * of edges by their "from" vertex, O(V + E). Reading successors
+     * is then just walking a part of an array.
+     * <p>
+     * Adding an edge after that drops the CSR, it's rebuilt on the
+     * next read. Reads are safe from many threads at once only if
+     * nothing is being added and the CSR is built, see {@link #freeze()}.
+     * Parallel edges are kept, self-loops are allowed.
+     */
+    public DirectedGraph(int vertexCount) {
+        if (vertexCount < 0)
+            throw new IllegalArgumentException("Negative number of vertices");
+        this.vertexCount = vertexCount;
+    }
+
+    /**
+     * Adds edge from -> to, meaning "from goes before to".
+     *
+     * @throws IllegalArgumentException if either vertex is not in the graph
+     */
+    public void addEdge(int from, int to) {
+        checkVertex(from);
+        checkVertex(to);
+        if (edgeCount == this.from.length) {
+            this.from = Arrays.copyOf(this.from, edgeCount * 2);
+            this.to = Arrays.copyOf(this.to, edgeCount * 2);
+        }
+        this.from[edgeCount] = from;
+        this.to[edgeCount] = to;
+        edgeCount++;
+        offsets = null;
+        targets = null;
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Successors of v are {@link #getTarget(int)} of edges
+     * [getFirstEdge(v), getFirstEdge(v + 1)).
+     *
+     * @param v vertex, or vertexCount for the end of the last one
+     */
+    public int getFirstEdge(int v) {
+        freeze();
+        return offsets[v];
+    }
+
+    public int getTarget(int edge) {
+        freeze();
+        return targets[edge];
+    }
+
+    public int getOutDegree(int v) {
+        freeze();
+        return offsets[v + 1] - offsets[v];
+    }
+
+    /**
+     * Builds the CSR now, if it isn't built yet. Call it
+     * before reading the graph from many threads.
+     */
+    public void freeze() {
+        if (offsets != null) return;
+
+        int[] count = new int[vertexCount + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            count[from[i] + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            count[v + 1] += count[v];
+        }
+        int[] next = Arrays.copyOf(count, vertexCount);
+        int[] sortedTargets = new int[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            sortedTargets[next[from[i]]++] = to[i];
+        }
+        targets = sortedTargets;
+        offsets = count;
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= vertexCount)
+            throw new IllegalArgumentException("No vertex " + v + " in the graph");
+    }
+}
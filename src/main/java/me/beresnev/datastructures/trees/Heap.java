@@ -4,7 +4,7 @@ import java.util.Arrays;
 
 /**
  * @author Ignat Beresnev
- * @version 2.0
+ * @version 2.1
  * @since 18.02.17.
  */
 public abstract class Heap<T> {
@@ -153,12 +153,14 @@ public abstract class Heap<T> {
     }
 
     /**
-     * Don't want to get nullPointer or arrayIndexOutOfBounds, do we?
+     * Used by checkHeapStructureBottomUp only, to see if both the branch
+     * and its parent are in the heap. Not good for heapify: a branch can
+     * have the left child only, and this says false for it.
      */
-    boolean areNodesAvailable(int leftChild, int rightChild) {
-        if (leftChild > elementPointer || rightChild > elementPointer) {
+    boolean areNodesAvailable(int parent, int branch) {
+        if (parent > elementPointer || branch > elementPointer) {
             return false;
-        } else if (array[leftChild] == null || array[rightChild] == null) {
+        } else if (array[parent] == null || array[branch] == null) {
             return false;
         }
         return true;
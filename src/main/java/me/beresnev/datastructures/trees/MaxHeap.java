@@ -2,7 +2,7 @@ package me.beresnev.datastructures.trees;
 
 /**
  * @author Ignat Beresnev
- * @version 2.0
+ * @version 2.1
  * @since 18.02.17.
  */
 public class MaxHeap<T extends Comparable<T>> extends Heap<T> {
@@ -20,18 +20,14 @@ public class MaxHeap<T extends Comparable<T>> extends Heap<T> {
         int leftChild = leftChild(branch);
         int rightChild = rightChild(branch);
 
-        if (!areNodesAvailable(leftChild, rightChild)) {
-            return;
-        }
-
+        // children are checked one by one: a branch can have
+        // the left child only, and it still has to be compared
         int largestValueIndex = branch;
-        int comparison = array[leftChild].compareTo(array[branch]);
-        if (leftChild <= elementPointer - 1 && comparison > 0) {
+        if (leftChild < elementPointer && array[leftChild].compareTo(array[largestValueIndex]) > 0) {
             largestValueIndex = leftChild;
         }
 
-        comparison = array[rightChild].compareTo(array[largestValueIndex]);
-        if (rightChild <= elementPointer - 1 && comparison > 0) {
+        if (rightChild < elementPointer && array[rightChild].compareTo(array[largestValueIndex]) > 0) {
             largestValueIndex = rightChild;
         }
 
@@ -1,11 +1,14 @@
 package me.beresnev;
 
+import org.junit.Assert;
+
 import java.util.Arrays;
 import java.util.Random;
+import java.util.function.Consumer;
 
 /**
  * @author Ignat Beresnev
- * @version 1.1
+ * @version 1.3
  * @since 25.02.17.
  */
 public class ArrayInitializer {
@@ -54,4 +57,135 @@ public class ArrayInitializer {
         System.out.println("Generated array: " + Arrays.toString(array));
         return array;
     }
+
+    /**
+     * @return array filled with random longs, any of them
+     */
+    public static long[] getRandomizedLongs(int length) {
+        long[] array = new long[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = random.nextLong();
+        }
+        return array;
+    }
+
+    /**
+     * @return array of random doubles, with NaNs, -0.0 and 0.0 mixed in.
+     * Those are the ones sorts usually get wrong
+     */
+    public static double[] getRandomizedDoubles(int length) {
+        double[] array = new double[length];
+        for (int i = 0; i < length; i++) {
+            switch (random.nextInt(20)) {
+                case 0:
+                    array[i] = Double.NaN;
+                    break;
+                case 1:
+                    array[i] = -0.0d;
+                    break;
+                case 2:
+                    array[i] = 0.0d;
+                    break;
+                default:
+                    array[i] = random.nextGaussian();
+            }
+        }
+        return array;
+    }
+
+    /**
+     * @return array filled with random shorts, any of them
+     */
+    public static short[] getRandomizedShorts(int length) {
+        short[] array = new short[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = (short) random.nextInt();
+        }
+        return array;
+    }
+
+    /**
+     * @return array filled with random bytes, any of them
+     */
+    public static byte[] getRandomizedBytes(int length) {
+        byte[] array = new byte[length];
+        random.nextBytes(array);
+        return array;
+    }
+
+    /**
+     * Arrays of doubles can't be compared with assertArrayEquals
+     * without delta, and NaN, -0.0 don't work with delta anyway.
+     *
+     * @return bits of every double, so arrays can be compared exactly
+     */
+    public static long[] toBits(double[] array) {
+        long[] bits = new long[array.length];
+        for (int i = 0; i < array.length; i++) {
+            bits[i] = Double.doubleToLongBits(array[i]);
+        }
+        return bits;
+    }
+
+    /**
+     * Sorts random longs, plus the min and the max, with the given
+     * sort and compares the result with Arrays.sort.
+     */
+    public static void assertSortsLongs(Consumer<long[]> sort) {
+        long[] array = getRandomizedLongs(1001);
+        array[0] = Long.MIN_VALUE;
+        array[1] = Long.MAX_VALUE;
+        long[] copy = Arrays.copyOf(array, array.length);
+
+        Arrays.sort(array);
+        sort.accept(copy);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    /**
+     * Same as {@link #assertSortsLongs(Consumer)}, only for doubles with
+     * NaNs, zeros of both signs and infinities. Arrays.sort puts -0.0
+     * before 0.0 and NaNs at the end, so the sort has to do the same.
+     * Doubles are compared bit by bit.
+     */
+    public static void assertSortsDoubles(Consumer<double[]> sort) {
+        double[] array = getRandomizedDoubles(1001);
+        array[0] = Double.NEGATIVE_INFINITY;
+        array[1] = Double.POSITIVE_INFINITY;
+        array[2] = -Double.MAX_VALUE;
+        array[3] = Double.MIN_VALUE;
+        double[] copy = Arrays.copyOf(array, array.length);
+
+        Arrays.sort(array);
+        sort.accept(copy);
+        Assert.assertArrayEquals(toBits(array), toBits(copy));
+    }
+
+    /**
+     * Same as {@link #assertSortsLongs(Consumer)}, only for shorts.
+     */
+    public static void assertSortsShorts(Consumer<short[]> sort) {
+        short[] array = getRandomizedShorts(1001);
+        array[0] = Short.MIN_VALUE;
+        array[1] = Short.MAX_VALUE;
+        short[] copy = Arrays.copyOf(array, array.length);
+
+        Arrays.sort(array);
+        sort.accept(copy);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    /**
+     * Same as {@link #assertSortsLongs(Consumer)}, only for bytes.
+     */
+    public static void assertSortsBytes(Consumer<byte[]> sort) {
+        byte[] array = getRandomizedBytes(1001);
+        array[0] = Byte.MIN_VALUE;
+        array[1] = Byte.MAX_VALUE;
+        byte[] copy = Arrays.copyOf(array, array.length);
+
+        Arrays.sort(array);
+        sort.accept(copy);
+        Assert.assertArrayEquals(array, copy);
+    }
 }
@@ -0,0 +1,118 @@
+package me.beresnev.algorithms.sorting;
+
+import me.beresnev.ArrayInitializer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.0
+ * @since 18.10.26.
+ */
+public class AdaptiveSorterTest {
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @After
+    public void tearDown() {
+        AdaptiveSorter.setListener(null);
+        pool.shutdown();
+    }
+
+    @Test
+    public void smallArrayGoesToInsertion() {
+        checkStrategy(ArrayInitializer.getRandomizedArray(50, -1000, 2000), AdaptiveSorter.Strategy.INSERTION);
+    }
+
+    @Test
+    public void sortedArraysGoToMerge() {
+        int[] ascending = IntStream.range(-50000, 50000).map(i -> i * 7).toArray();
+        checkStrategy(ascending, AdaptiveSorter.Strategy.MERGE);
+
+        int[] descending = IntStream.range(0, 100000).map(i -> -i * 3).toArray();
+        checkStrategy(descending, AdaptiveSorter.Strategy.MERGE);
+
+        int[] almostSorted = IntStream.range(0, 100000).map(i -> i * 5).toArray();
+        for (int i = 0; i < almostSorted.length; i += 100) {
+            almostSorted[i] = -i;
+        }
+        checkStrategy(almostSorted, AdaptiveSorter.Strategy.MERGE);
+    }
+
+    @Test
+    public void narrowRangeGoesToCounting() {
+        checkStrategy(ArrayInitializer.getRandomizedArray(10000, -500, 1000), AdaptiveSorter.Strategy.COUNTING);
+    }
+
+    @Test
+    public void bigArrayGoesToParallelRadix() {
+        int[] array = ArrayInitializer.getRandomizedArray(1 << 19, Integer.MIN_VALUE / 2, Integer.MAX_VALUE);
+        checkStrategy(array, AdaptiveSorter.Strategy.PARALLEL_RADIX);
+    }
+
+    @Test
+    public void wideRangeGoesToRadix() {
+        int[] array = ArrayInitializer.getRandomizedArray(10000, -1000000000, 2000000000);
+        checkStrategy(array, AdaptiveSorter.Strategy.RADIX);
+    }
+
+    @Test
+    public void duplicatesOverWideRangeGoToQuick() {
+        int[] array = ArrayInitializer.getRandomizedArray(10000, 0, 10);
+        for (int i = 0; i < array.length; i++) {
+            array[i] *= 100000000;
+        }
+        checkStrategy(array, AdaptiveSorter.Strategy.QUICK);
+    }
+
+    @Test
+    public void profile() {
+        int[] array = IntStream.range(0, 1000).toArray();
+        AdaptiveSorter.Profile profile = AdaptiveSorter.profile(array);
+        Assert.assertEquals(1000, profile.getLength());
+        Assert.assertEquals(0, profile.getMinValue());
+        Assert.assertEquals(999, profile.getMaxValue());
+        Assert.assertEquals(999, profile.getSampleSize());
+        Assert.assertEquals(999, profile.getAscending());
+        Assert.assertEquals(0, profile.getDescending());
+        Assert.assertEquals(999, profile.getDistinct());
+    }
+
+    @Test
+    public void extremeValues() {
+        int[] array = ArrayInitializer.getRandomizedArray(5000, -100, 200);
+        array[0] = Integer.MIN_VALUE;
+        array[1] = Integer.MAX_VALUE;
+        int[] expected = ArrayInitializer.getCopyOf(array);
+        Arrays.sort(expected);
+
+        AdaptiveSorter.sort(array, pool);
+        Assert.assertArrayEquals(expected, array);
+    }
+
+    /**
+     * Nothing to sort, but the call is still reported.
+     */
+    @Test
+    public void tinyArrays() {
+        checkStrategy(new int[0], AdaptiveSorter.Strategy.INSERTION);
+        checkStrategy(new int[]{42}, AdaptiveSorter.Strategy.INSERTION);
+    }
+
+    private void checkStrategy(int[] array, AdaptiveSorter.Strategy expectedStrategy) {
+        List<AdaptiveSorter.Strategy> reported = new ArrayList<>();
+        AdaptiveSorter.setListener((profile, strategy) -> reported.add(strategy));
+        int[] expected = ArrayInitializer.getCopyOf(array);
+        Arrays.sort(expected);
+
+        AdaptiveSorter.sort(array, pool);
+        Assert.assertArrayEquals(expected, array);
+        Assert.assertEquals(Arrays.asList(expectedStrategy), reported);
+    }
+}
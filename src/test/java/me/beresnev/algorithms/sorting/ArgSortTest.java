@@ -0,0 +1,150 @@
+package me.beresnev.algorithms.sorting;
+
+import me.beresnev.ArrayInitializer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.0
+ * @since 18.10.26.
+ */
+public class ArgSortTest {
+    @Test
+    public void radixSort() {
+        int[] keys = ArrayInitializer.getRandomizedArray(5000, -1000, 2000);
+        int[] copy = ArrayInitializer.getCopyOf(keys);
+
+        assertStableSortingPermutation(keys, ArgSort.radixSort(keys));
+        Assert.assertArrayEquals(copy, keys);
+    }
+
+    @Test
+    public void radixSortLongs() {
+        long[] keys = ArrayInitializer.getRandomizedLongs(5000);
+        for (int i = 0; i < keys.length; i += 2) {
+            keys[i] = keys[i + 1]; // repeating keys
+        }
+        assertStableSortingPermutation(keys, ArgSort.radixSort(keys));
+    }
+
+    @Test
+    public void mergeSort() {
+        int[] keys = ArrayInitializer.getRandomizedArray(5001, -100, 200);
+        assertStableSortingPermutation(keys, ArgSort.mergeSort(keys));
+    }
+
+    @Test
+    public void mergeSortLongs() {
+        long[] keys = ArrayInitializer.getRandomizedLongs(5001);
+        for (int i = 0; i < keys.length - 1; i += 2) {
+            keys[i] = keys[i + 1];
+        }
+        assertStableSortingPermutation(keys, ArgSort.mergeSort(keys));
+    }
+
+    @Test
+    public void emptyKeys() {
+        Assert.assertEquals(0, ArgSort.radixSort(new int[0]).length);
+        Assert.assertEquals(0, ArgSort.mergeSort(new long[0]).length);
+    }
+
+    /**
+     * Sorting by one column keeps rows together.
+     */
+    @Test
+    public void applyPermutation() {
+        int length = 3000;
+        int[] ids = new int[length];
+        long[] timestamps = ArrayInitializer.getRandomizedLongs(length);
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            ids[i] = i;
+            values[i] = i * 0.5;
+        }
+        long[] sortedTimestamps = Arrays.copyOf(timestamps, length);
+        Arrays.sort(sortedTimestamps);
+
+        int[] perm = ArgSort.radixSort(timestamps);
+        int[] permCopy = ArrayInitializer.getCopyOf(perm);
+        ArgSort.applyPermutation(perm, ids);
+        ArgSort.applyPermutation(perm, timestamps);
+        ArgSort.applyPermutation(perm, values);
+
+        Assert.assertArrayEquals(permCopy, perm);
+        Assert.assertArrayEquals(sortedTimestamps, timestamps);
+        Assert.assertArrayEquals(permCopy, ids);
+        for (int i = 0; i < length; i++) {
+            Assert.assertEquals(ids[i] * 0.5, values[i], 0);
+        }
+    }
+
+    @Test
+    public void applyPermutationManyColumns() {
+        int[] perm = {2, 0, 1, 4, 3, 5};
+        int[] first = {10, 11, 12, 13, 14, 15};
+        int[] second = {20, 21, 22, 23, 24, 25};
+
+        ArgSort.applyPermutation(perm, first, second);
+        Assert.assertArrayEquals(new int[]{12, 10, 11, 14, 13, 15}, first);
+        Assert.assertArrayEquals(new int[]{22, 20, 21, 24, 23, 25}, second);
+    }
+
+    /**
+     * Bad permutation is reported before anything is moved.
+     */
+    @Test
+    public void repeatedIndex() {
+        int[] perm = {1, 0, 1};
+        int[] column = {1, 2, 3};
+        try {
+            ArgSort.applyPermutation(perm, column);
+            Assert.fail();
+        } catch (IllegalArgumentException expected) {
+            Assert.assertArrayEquals(new int[]{1, 0, 1}, perm);
+            Assert.assertArrayEquals(new int[]{1, 2, 3}, column);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeIndex() {
+        ArgSort.applyPermutation(new int[]{-2, 0}, new int[2]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void columnOfDifferentLength() {
+        ArgSort.applyPermutation(new int[]{1, 0}, new long[3]);
+    }
+
+    private static void assertStableSortingPermutation(int[] keys, int[] perm) {
+        Assert.assertEquals(keys.length, perm.length);
+        for (int i = 1; i < perm.length; i++) {
+            Assert.assertTrue(keys[perm[i - 1]] <= keys[perm[i]]);
+            if (keys[perm[i - 1]] == keys[perm[i]]) {
+                Assert.assertTrue(perm[i - 1] < perm[i]);
+            }
+        }
+        int[] sorted = ArrayInitializer.getCopyOf(perm);
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; i++) {
+            Assert.assertEquals(i, sorted[i]);
+        }
+    }
+
+    private static void assertStableSortingPermutation(long[] keys, int[] perm) {
+        Assert.assertEquals(keys.length, perm.length);
+        for (int i = 1; i < perm.length; i++) {
+            Assert.assertTrue(keys[perm[i - 1]] <= keys[perm[i]]);
+            if (keys[perm[i - 1]] == keys[perm[i]]) {
+                Assert.assertTrue(perm[i - 1] < perm[i]);
+            }
+        }
+        int[] sorted = ArrayInitializer.getCopyOf(perm);
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; i++) {
+            Assert.assertEquals(i, sorted[i]);
+        }
+    }
+}
@@ -1,17 +1,26 @@
 package me.beresnev.algorithms.sorting;
 
 import me.beresnev.ArrayInitializer;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * @author Ignat Beresnev
- * @version 1.2
+ * @version 1.3
  * @since 26.02.17.
  */
 public class BubbleSortTest {
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
     @Test
     public void sort() throws Exception {
         int[] array = ArrayInitializer.getRandomizedArray(40, 0, 40);
@@ -42,4 +51,64 @@ public class BubbleSortTest {
         Assert.assertArrayEquals(array, copy);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void oddEvenSort() {
+        for (int length = 0; length < 70; length++) {
+            int[] array = ArrayInitializer.getRandomizedArray(length, -20, 40);
+            int[] copy = ArrayInitializer.getCopyOf(array);
+
+            Arrays.sort(array);
+            BubbleSort.oddEvenSort(copy);
+            Assert.assertArrayEquals(array, copy);
+        }
+    }
+
+    /**
+     * Lengths that are powers of 2 and ones that aren't.
+     */
+    @Test
+    public void bitonicSort() {
+        for (int length = 0; length < 300; length++) {
+            int[] array = ArrayInitializer.getRandomizedArray(length, -100, 200);
+            int[] copy = ArrayInitializer.getCopyOf(array);
+
+            Arrays.sort(array);
+            BubbleSort.bitonicSort(copy);
+            Assert.assertArrayEquals(array, copy);
+        }
+    }
+
+    @Test
+    public void parallelBitonicSort() {
+        for (int length : new int[]{1 << 16, 100003}) {
+            int[] array = ArrayInitializer.getRandomizedArray(length, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            int[] copy = ArrayInitializer.getCopyOf(array);
+
+            Arrays.sort(array);
+            BubbleSort.bitonicSort(copy, pool);
+            Assert.assertArrayEquals(array, copy);
+        }
+    }
+
+    @Test
+    public void sortBatches() {
+        int[][] batch = new int[200][];
+        int[][] expected = new int[batch.length][];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = ArrayInitializer.getRandomizedArray(i * 7 % 500, -1000, 2000);
+            expected[i] = ArrayInitializer.getCopyOf(batch[i]);
+            Arrays.sort(expected[i]);
+        }
+        int[][] copy = new int[batch.length][];
+        for (int i = 0; i < batch.length; i++) {
+            copy[i] = ArrayInitializer.getCopyOf(batch[i]);
+        }
+
+        BubbleSort.oddEvenSort(batch, pool);
+        BubbleSort.bitonicSort(copy, pool);
+        for (int i = 0; i < batch.length; i++) {
+            Assert.assertArrayEquals(expected[i], batch[i]);
+            Assert.assertArrayEquals(expected[i], copy[i]);
+        }
+    }
+}
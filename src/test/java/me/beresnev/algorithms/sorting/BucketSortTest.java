@@ -0,0 +1,211 @@
+package me.beresnev.algorithms.sorting;
+
+import me.beresnev.ArrayInitializer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.2
+ * @since 18.10.26.
+ */
+public class BucketSortTest {
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void sort() {
+        int[] array = ArrayInitializer.getRandomizedArray(1000, -500, 1000);
+        array[0] = Integer.MIN_VALUE;
+        array[1] = Integer.MAX_VALUE;
+        int[] copy = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array);
+        BucketSort.sort(copy);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    @Test
+    public void straightArray() {
+        int[] array = new int[]{1, 1, 1, 1, 1, 1, 1, 1, 1};
+        int[] copy = ArrayInitializer.getCopyOf(array);
+
+        BucketSort.sort(copy);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    @Test
+    public void badArray() {
+        BucketSort.sort(new int[]{});
+        BucketSort.sort(new int[]{1});
+        BucketSort.sort(new double[]{});
+    }
+
+    @Test
+    public void sortDoubles() {
+        Random random = new Random();
+        double[] array = new double[1000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = random.nextDouble() * 200 - 100;
+        }
+        double[] copy = Arrays.copyOf(array, array.length);
+
+        Arrays.sort(array);
+        BucketSort.sort(copy);
+        Assert.assertArrayEquals(array, copy, 0);
+    }
+
+    /**
+     * Compared bit by bit, -0.0 has to go before 0.0.
+     */
+    @Test
+    public void sortDoublesWithZeros() {
+        double[] array = new double[1000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = i % 3 == 0 ? -0.0d : i % 3 == 1 ? 0.0d : i - 500;
+        }
+        double[] copy = Arrays.copyOf(array, array.length);
+
+        Arrays.sort(array);
+        BucketSort.sort(copy);
+        Assert.assertArrayEquals(ArrayInitializer.toBits(array), ArrayInitializer.toBits(copy));
+
+        double[] zeros = {0.0d, -0.0d, 0.0d, -0.0d};
+        BucketSort.sort(zeros);
+        Assert.assertArrayEquals(ArrayInitializer.toBits(new double[]{-0.0d, -0.0d, 0.0d, 0.0d}),
+                ArrayInitializer.toBits(zeros));
+    }
+
+    /**
+     * max - min is infinite here. With every value in bucket 0
+     * it would be insertion sort of 100000 elements.
+     */
+    @Test(timeout = 10000)
+    public void sortDoublesInfiniteRange() {
+        Random random = new Random();
+        double[] huge = new double[100000];
+        double[] infinite = new double[100000];
+        for (int i = 0; i < huge.length; i++) {
+            huge[i] = (random.nextDouble() * 2 - 1) * Double.MAX_VALUE;
+            infinite[i] = i % 100 == 0 ? Double.NEGATIVE_INFINITY : random.nextDouble();
+        }
+        infinite[1] = Double.POSITIVE_INFINITY;
+
+        for (double[] array : new double[][]{huge, infinite}) {
+            double[] copy = Arrays.copyOf(array, array.length);
+            Arrays.sort(array);
+            BucketSort.sort(copy);
+            Assert.assertArrayEquals(ArrayInitializer.toBits(array), ArrayInitializer.toBits(copy));
+        }
+    }
+
+    /**
+     * NaNs go to the end, the rest is sorted as usual
+     */
+    @Test
+    public void sortNaN() {
+        Random random = new Random();
+        double[] array = new double[1000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = i % 10 == 0 ? Double.NaN : random.nextDouble() * 200 - 100;
+        }
+        array[1] = -0.0d;
+        array[2] = 0.0d;
+        double[] copy = Arrays.copyOf(array, array.length);
+
+        Arrays.sort(array);
+        BucketSort.sort(copy);
+        Assert.assertArrayEquals(ArrayInitializer.toBits(array), ArrayInitializer.toBits(copy));
+
+        double[] onlyNaNs = {Double.NaN, 1, Double.NaN};
+        BucketSort.sort(onlyNaNs);
+        Assert.assertArrayEquals(ArrayInitializer.toBits(new double[]{1, Double.NaN, Double.NaN}),
+                ArrayInitializer.toBits(onlyNaNs));
+    }
+
+    /**
+     * Most values are tiny, a few are huge. Equal-width buckets
+     * would put almost everything in the first one.
+     */
+    @Test
+    public void sampleSortSkewed() {
+        Random random = new Random();
+        int[] array = new int[100000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = i % 100 == 0 ? random.nextInt() : random.nextInt(1000);
+        }
+        int[] copy = ArrayInitializer.getCopyOf(array);
+        int[] parallelCopy = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array);
+        BucketSort.sampleSort(copy);
+        BucketSort.sampleSort(parallelCopy, pool);
+        Assert.assertArrayEquals(array, copy);
+        Assert.assertArrayEquals(array, parallelCopy);
+    }
+
+    @Test
+    public void sampleSortSmallArray() {
+        int[] array = ArrayInitializer.getNegativeArray(20);
+        int[] copy = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array);
+        BucketSort.sampleSort(copy);
+        Assert.assertArrayEquals(array, copy);
+        BucketSort.sampleSort(new int[]{});
+    }
+
+    /**
+     * Pairs of (key, index), sorted by key only. Lots of equal keys,
+     * so the index shows whether they kept their order.
+     */
+    @Test
+    public void sampleSortObjects() {
+        Random random = new Random();
+        long[][] array = new long[200000][];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = new long[]{random.nextInt(5000), i};
+        }
+        long[][] copy = Arrays.copyOf(array, array.length);
+        Comparator<long[]> byKey = Comparator.comparingLong(pair -> pair[0]);
+
+        Arrays.sort(array, byKey); // stable too
+        BucketSort.sampleSort(copy, byKey, pool);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    @Test
+    public void sampleSortStrings() {
+        Random random = new Random();
+        String[] array = new String[50000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = Integer.toString(random.nextInt(), 36);
+        }
+        String[] copy = Arrays.copyOf(array, array.length);
+
+        Arrays.sort(array);
+        BucketSort.sampleSort(copy, Comparator.<String>naturalOrder(), pool);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    /**
+     * Too small to split, sorted in this thread.
+     */
+    @Test
+    public void sampleSortFewObjects() {
+        Integer[] array = {5, 3, 1, 4, 2};
+        BucketSort.sampleSort(array, Comparator.<Integer>naturalOrder(), pool);
+        Assert.assertArrayEquals(new Integer[]{1, 2, 3, 4, 5}, array);
+        BucketSort.sampleSort(new Integer[0], Comparator.<Integer>naturalOrder(), pool);
+    }
+}
@@ -12,7 +12,7 @@ import java.util.List;
 
 /**
  * @author Ignat Beresnev
- * @version 1.1
+ * @version 1.4
  * @since 25.02.17.
  */
 public class CountingSortTest {
@@ -143,4 +143,182 @@ public class CountingSortTest {
             System.out.println("-------------------------------------------------------------");
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void simpleSortNoMax() {
+        int[] array = ArrayInitializer.getRandomizedArray(100, 1000000, 40);
+        int[] negative = ArrayInitializer.getNegativeArray(40);
+        int[] copy = ArrayInitializer.getCopyOf(array);
+        int[] negativeCopy = ArrayInitializer.getCopyOf(negative);
+
+        Arrays.sort(array);
+        Arrays.sort(negative);
+        CountingSort.simpleSort(copy);
+        CountingSort.simpleSort(negativeCopy);
+        Assert.assertArrayEquals(array, copy);
+        Assert.assertArrayEquals(negative, negativeCopy);
+    }
+
+    @Test
+    public void stableIntSortNoMax() {
+        int[] array = ArrayInitializer.getRandomizedArray(100, -1000000, 40);
+        int[] copy = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array);
+        copy = CountingSort.stableIntSort(copy);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    /**
+     * Range is way too wide for counting, should fall back to radix sort.
+     */
+    @Test
+    public void wideRange() {
+        int[] array = new int[]{Integer.MAX_VALUE, 5, -5, Integer.MIN_VALUE, 0, 5};
+        int[] copy = ArrayInitializer.getCopyOf(array);
+        int[] copy1 = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array);
+        CountingSort.simpleSort(copy);
+        Assert.assertArrayEquals(array, copy);
+        Assert.assertArrayEquals(array, CountingSort.stableIntSort(copy1));
+    }
+
+    /**
+     * A big enough array used to make any range countable, even the one
+     * that needs more than Integer.MAX_VALUE counters.
+     */
+    @Test
+    public void rangeIsCapped() {
+        Assert.assertTrue(CountingSort.isRangeCountable(200, 10));
+        Assert.assertTrue(CountingSort.isRangeCountable(CountingSort.MAX_COUNTERS, Integer.MAX_VALUE));
+        Assert.assertFalse(CountingSort.isRangeCountable(CountingSort.MAX_COUNTERS + 1, Integer.MAX_VALUE));
+        Assert.assertFalse(CountingSort.isRangeCountable(1L << 32, 1 << 30));
+    }
+
+    /**
+     * Range fits the per-element limit, but not the absolute one.
+     */
+    @Test
+    public void rangeOverCap() {
+        int[] array = ArrayInitializer.getRandomizedArray(CountingSort.MAX_COUNTERS / 2, 0, CountingSort.MAX_COUNTERS);
+        array[0] = 0;
+        array[1] = CountingSort.MAX_COUNTERS;
+        int[] copy = ArrayInitializer.getCopyOf(array);
+        int[] copy1 = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array);
+        CountingSort.simpleSort(copy);
+        Assert.assertArrayEquals(array, copy);
+        Assert.assertArrayEquals(array, CountingSort.stableIntSort(copy1));
+    }
+
+    @Test
+    public void stableSort() {
+        CountingSort.SomeObject[] array = new CountingSort.SomeObject[100];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = new CountingSort.SomeObject(i % 7, i);
+        }
+
+        CountingSort.SomeObject[] sorted = CountingSort.stableSort(array, obj -> obj.key, 6);
+        Assert.assertEquals(array.length, sorted.length);
+        for (int i = 1; i < sorted.length; i++) {
+            Assert.assertTrue(sorted[i - 1].key <= sorted[i].key);
+            if (sorted[i - 1].key == sorted[i].key) { // stable: same order as in input
+                Assert.assertTrue(sorted[i - 1].value < sorted[i].value);
+            }
+        }
+        Assert.assertArrayEquals(sorted, CountingSort.stableObjectSort(array, 6));
+    }
+
+    @Test
+    public void stablePermutation() {
+        int[] keys = ArrayInitializer.getRandomizedArray(100, 0, 10);
+        long[] values = new long[keys.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = keys[i] * 1000L + i; // row i
+        }
+
+        int[] perm = CountingSort.stablePermutation(keys, 9);
+        for (int i = 1; i < perm.length; i++) {
+            Assert.assertTrue(keys[perm[i - 1]] <= keys[perm[i]]);
+            Assert.assertTrue(values[perm[i - 1]] < values[perm[i]]);
+        }
+
+        Integer[] boxed = new Integer[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            boxed[i] = keys[i];
+        }
+        Assert.assertArrayEquals(perm, CountingSort.stablePermutation(boxed, Integer::intValue, 9));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stableSortKeyOutOfRange() {
+        CountingSort.stablePermutation(new int[]{1, 2, 11}, 10);
+    }
+
+    @Test
+    public void simpleSortLongs() {
+        ArrayInitializer.assertSortsLongs(CountingSort::simpleSort);
+    }
+
+    @Test
+    public void simpleSortShorts() {
+        ArrayInitializer.assertSortsShorts(CountingSort::simpleSort);
+    }
+
+    @Test
+    public void simpleSortBytes() {
+        ArrayInitializer.assertSortsBytes(CountingSort::simpleSort);
+    }
+
+    @Test
+    public void simpleSortShortsNarrowRange() {
+        short[] array = new short[1000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = (short) (i * 31 % 200 - 100);
+        }
+        short[] copy = Arrays.copyOf(array, array.length);
+
+        Arrays.sort(array);
+        CountingSort.simpleSort(copy);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    /**
+     * Longs close to each other are counted, the offset is what matters.
+     */
+    @Test
+    public void simpleSortLongsNarrowRange() {
+        long[] array = new long[1000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = Long.MAX_VALUE - i % 37;
+        }
+        long[] copy = Arrays.copyOf(array, array.length);
+
+        Arrays.sort(array);
+        CountingSort.simpleSort(copy);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    @Test
+    public void simpleSortLongsRangeOverCap() {
+        long[] array = new long[CountingSort.MAX_COUNTERS / 2];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = Long.MIN_VALUE + (i * 7L) % (CountingSort.MAX_COUNTERS + 1L);
+        }
+        array[0] = Long.MIN_VALUE + CountingSort.MAX_COUNTERS;
+        long[] copy = Arrays.copyOf(array, array.length);
+
+        Arrays.sort(array);
+        CountingSort.simpleSort(copy);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    @Test
+    public void simpleSortLongsWholeRange() {
+        long[] array = {Long.MAX_VALUE, 0, Long.MIN_VALUE, -1, 1};
+        CountingSort.simpleSort(array);
+        Assert.assertArrayEquals(new long[]{Long.MIN_VALUE, -1, 0, 1, Long.MAX_VALUE}, array);
+    }
+}
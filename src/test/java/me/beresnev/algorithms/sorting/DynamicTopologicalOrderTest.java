@@ -0,0 +1,124 @@
+package me.beresnev.algorithms.sorting;
+
+import me.beresnev.datastructures.DirectedGraph;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.0
+ * @since 18.10.26.
+ */
+public class DynamicTopologicalOrderTest {
+    private final Random random = new Random();
+
+    @Test
+    public void edgeAgainstOrder() {
+        DynamicTopologicalOrder order = new DynamicTopologicalOrder(4);
+        order.addEdge(3, 0); // 3 has to move before 0
+        order.addEdge(2, 3);
+
+        int[] snapshot = order.snapshot();
+        Assert.assertTrue(order.getPosition(3) < order.getPosition(0));
+        Assert.assertTrue(order.getPosition(2) < order.getPosition(3));
+        Assert.assertEquals(4, snapshot.length);
+        Assert.assertEquals(2, order.getEdgeCount());
+    }
+
+    /**
+     * Random edges, the ones making cycles are rejected. After every
+     * edge the order must agree with all edges added so far.
+     */
+    @Test
+    public void randomEdges() {
+        int n = 300;
+        DynamicTopologicalOrder order = new DynamicTopologicalOrder(n);
+        List<int[]> edges = new ArrayList<>();
+        int rejected = 0;
+        for (int i = 0; i < 3000; i++) {
+            int from = random.nextInt(n);
+            int to = random.nextInt(n);
+            try {
+                order.addEdge(from, to);
+                edges.add(new int[]{from, to});
+            } catch (TopologicalSort.CycleException e) {
+                rejected++;
+            }
+            if (i % 100 == 0) assertOrder(order, edges);
+        }
+        assertOrder(order, edges);
+        Assert.assertEquals(edges.size(), order.getEdgeCount());
+        Assert.assertTrue(rejected > 0);
+
+        // same edges, no cycles for Kahn either
+        DirectedGraph g = new DirectedGraph(n);
+        for (int[] edge : edges) {
+            g.addEdge(edge[0], edge[1]);
+        }
+        Assert.assertEquals(n, TopologicalSort.sort(g).length);
+    }
+
+    @Test
+    public void cycleIsRejected() {
+        DynamicTopologicalOrder order = new DynamicTopologicalOrder(5);
+        order.addEdge(0, 1);
+        order.addEdge(1, 2);
+        order.addEdge(2, 3);
+        int[] before = order.snapshot();
+
+        try {
+            order.addEdge(3, 0);
+            Assert.fail("Cycle wasn't found");
+        } catch (TopologicalSort.CycleException e) {
+            Assert.assertArrayEquals(new int[]{0, 1, 2, 3}, e.getCycle());
+        }
+        Assert.assertArrayEquals(before, order.snapshot());
+        Assert.assertEquals(3, order.getEdgeCount());
+    }
+
+    @Test(expected = TopologicalSort.CycleException.class)
+    public void selfLoop() {
+        new DynamicTopologicalOrder(1).addEdge(0, 0);
+    }
+
+    @Test
+    public void addVertex() {
+        DynamicTopologicalOrder order = new DynamicTopologicalOrder(0);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(i, order.addVertex());
+        }
+        order.addEdge(99, 0);
+        Assert.assertTrue(order.getPosition(99) < order.getPosition(0));
+    }
+
+    /**
+     * Snapshot doesn't change when the order does.
+     */
+    @Test
+    public void snapshotIsCopy() {
+        DynamicTopologicalOrder order = new DynamicTopologicalOrder(2);
+        int[] snapshot = order.snapshot();
+        order.addEdge(1, 0);
+        Assert.assertArrayEquals(new int[]{0, 1}, snapshot);
+        Assert.assertArrayEquals(new int[]{1, 0}, order.snapshot());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noSuchVertex() {
+        new DynamicTopologicalOrder(2).addEdge(0, 2);
+    }
+
+    private static void assertOrder(DynamicTopologicalOrder order, List<int[]> edges) {
+        int[] snapshot = order.snapshot();
+        for (int i = 0; i < snapshot.length; i++) {
+            Assert.assertEquals(i, order.getPosition(snapshot[i]));
+        }
+        for (int[] edge : edges) {
+            Assert.assertTrue(order.getPosition(edge[0]) < order.getPosition(edge[1]));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package me.beresnev.algorithms.sorting;
+
+import me.beresnev.ArrayInitializer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.0
+ * @since 18.10.26.
+ */
+public class ExternalMergeSortTest {
+    private Path in;
+    private Path out;
+
+    @Before
+    public void createFiles() throws IOException {
+        in = Files.createTempFile("unsorted", ".bin");
+        out = Files.createTempFile("sorted", ".bin");
+    }
+
+    @After
+    public void deleteFiles() throws IOException {
+        Files.deleteIfExists(in);
+        Files.deleteIfExists(out);
+    }
+
+    @Test
+    public void sortInts() throws IOException {
+        int[] array = ArrayInitializer.getRandomizedArray(100000, -5000, 10000);
+        writeInts(in, array);
+
+        Arrays.sort(array);
+        ExternalMergeSort.sort(in, out, 64 * 1024);
+        Assert.assertArrayEquals(array, readInts(out, array.length));
+    }
+
+    /**
+     * Budget this small gives more runs than can be merged
+     * at once, so runs have to be merged in a few passes.
+     */
+    @Test
+    public void sortIntsMultiplePasses() throws IOException {
+        int[] array = ArrayInitializer.getRandomizedArray(20000, -50, 100);
+        writeInts(in, array);
+
+        Arrays.sort(array);
+        ExternalMergeSort.sort(in, out, 3 * 1024);
+        Assert.assertArrayEquals(array, readInts(out, array.length));
+    }
+
+    @Test
+    public void sortLongs() throws IOException {
+        Random random = new Random();
+        long[] array = new long[30000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = random.nextLong();
+        }
+        try (DataOutputStream stream = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(in)))) {
+            for (long value : array) {
+                stream.writeLong(value);
+            }
+        }
+
+        Arrays.sort(array);
+        ExternalMergeSort.sortLongs(in, out, 16 * 1024);
+        long[] sorted = new long[array.length];
+        try (DataInputStream stream = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(out)))) {
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = stream.readLong();
+            }
+            Assert.assertEquals(-1, stream.read());
+        }
+        Assert.assertArrayEquals(array, sorted);
+    }
+
+    @Test
+    public void emptyFile() throws IOException {
+        ExternalMergeSort.sort(in, out, 64 * 1024);
+        Assert.assertEquals(0, Files.size(out));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void badMemoryBudget() throws IOException {
+        ExternalMergeSort.sort(in, out, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void badFileSize() throws IOException {
+        Files.write(in, new byte[]{1, 2, 3});
+        ExternalMergeSort.sort(in, out, 64 * 1024);
+    }
+
+    private static void writeInts(Path file, int[] array) throws IOException {
+        try (DataOutputStream stream = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file)))) {
+            for (int value : array) {
+                stream.writeInt(value);
+            }
+        }
+    }
+
+    private static int[] readInts(Path file, int length) throws IOException {
+        int[] array = new int[length];
+        try (DataInputStream stream = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            for (int i = 0; i < length; i++) {
+                array[i] = stream.readInt();
+            }
+            Assert.assertEquals(-1, stream.read());
+        }
+        return array;
+    }
+}
@@ -8,7 +8,7 @@ import java.util.Arrays;
 
 /**
  * @author Ignat Beresnev
- * @version 1.1
+ * @version 1.4
  * @since 26.02.17.
  */
 public class HeapSortTest {
@@ -48,4 +48,63 @@ public class HeapSortTest {
 
         Assert.assertArrayEquals(array, copy);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void bottomUpSort() {
+        for (int length = 0; length < 100; length++) {
+            int[] array = ArrayInitializer.getRandomizedArray(length, -20, 40);
+            int[] copy = ArrayInitializer.getCopyOf(array);
+
+            Arrays.sort(array);
+            HeapSort.bottomUpSort(copy);
+            Assert.assertArrayEquals(array, copy);
+        }
+    }
+
+    @Test
+    public void dAryHeap() {
+        for (int arity = 2; arity <= 5; arity++) {
+            int[] array = ArrayInitializer.getRandomizedArray(1000, -500, 1000);
+            int[] copy = ArrayInitializer.getCopyOf(array);
+
+            Arrays.sort(array);
+            HeapSort.sort(copy, arity);
+            Assert.assertArrayEquals(array, copy);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void badArity() {
+        HeapSort.sort(new int[]{3, 2, 1}, 1);
+    }
+
+    @Test
+    public void sortRange() {
+        int[] array = ArrayInitializer.getRandomizedArray(100, -50, 100);
+        int[] copy = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array, 20, 80);
+        HeapSort.sort(copy, 20, 80);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    @Test
+    public void sortLongs() {
+        ArrayInitializer.assertSortsLongs(HeapSort::sort);
+    }
+
+    @Test
+    public void sortDoubles() {
+        ArrayInitializer.assertSortsDoubles(HeapSort::sort);
+    }
+
+    @Test
+    public void sortShorts() {
+        ArrayInitializer.assertSortsShorts(HeapSort::sort);
+    }
+
+    @Test
+    public void sortBytes() {
+        ArrayInitializer.assertSortsBytes(HeapSort::sort);
+    }
+}
@@ -0,0 +1,144 @@
+package me.beresnev.algorithms.sorting;
+
+import me.beresnev.ArrayInitializer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.1
+ * @since 18.10.26.
+ */
+public class HybridSortTest {
+    @Test
+    public void sort() {
+        for (int length = 0; length < 300; length += 7) {
+            int[] array = ArrayInitializer.getRandomizedArray(length, -100, 200);
+            int[] copy = ArrayInitializer.getCopyOf(array);
+
+            Arrays.sort(array);
+            HybridSort.sort(copy);
+            Assert.assertArrayEquals(array, copy);
+        }
+    }
+
+    @Test
+    public void bigArray() {
+        int[] array = ArrayInitializer.getRandomizedArray(100000, -50000, 100000);
+        int[] copy = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array);
+        HybridSort.sort(copy);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    /**
+     * A few ascending and descending runs of different lengths glued together.
+     */
+    @Test
+    public void presortedRuns() {
+        int[] array = new int[50000];
+        int i = 0;
+        for (int run = 0; i < array.length; run++) {
+            int runLength = Math.min(array.length - i, 1000 + run * 737);
+            int start = ArrayInitializer.getRandomizedArray(1, 0, 10000)[0];
+            for (int j = 0; j < runLength; j++) {
+                array[i++] = run % 2 == 0 ? start + j : start - j;
+            }
+        }
+        int[] copy = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array);
+        HybridSort.sort(copy);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    @Test
+    public void stableObjectSort() {
+        CountingSort.SomeObject[] array = new CountingSort.SomeObject[10000];
+        int[] keys = ArrayInitializer.getRandomizedArray(array.length, 0, 50);
+        for (int i = 0; i < array.length; i++) {
+            array[i] = new CountingSort.SomeObject(keys[i], i);
+        }
+
+        HybridSort.sort(array, Comparator.comparingInt(obj -> obj.key));
+        for (int i = 1; i < array.length; i++) {
+            Assert.assertTrue(array[i - 1].key <= array[i].key);
+            if (array[i - 1].key == array[i].key) {
+                Assert.assertTrue(array[i - 1].value < array[i].value);
+            }
+        }
+    }
+
+    @Test
+    public void reversedObjects() {
+        Integer[] array = new Integer[1000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = array.length - i;
+        }
+
+        HybridSort.sort(array, Comparator.naturalOrder());
+        for (int i = 0; i < array.length; i++) {
+            Assert.assertEquals(i + 1, (int) array[i]);
+        }
+    }
+
+    /**
+     * Long sorted run followed by a short one: the short one is what's
+     * copied aside, and the merge goes from the end backward.
+     */
+    @Test
+    public void longRunThenShortRun() {
+        for (int tail : new int[]{1, 5, 40, 300, 3000}) {
+            int[] array = new int[20000 + tail];
+            for (int i = 0; i < 20000; i++) {
+                array[i] = i * 3;
+            }
+            int[] shortRun = ArrayInitializer.getRandomizedArray(tail, -100, 70000);
+            Arrays.sort(shortRun);
+            System.arraycopy(shortRun, 0, array, 20000, tail);
+            int[] copy = ArrayInitializer.getCopyOf(array);
+
+            Arrays.sort(array);
+            HybridSort.sort(copy);
+            Assert.assertArrayEquals(array, copy);
+        }
+    }
+
+    @Test
+    public void longRunThenShortRunIsStable() {
+        CountingSort.SomeObject[] array = new CountingSort.SomeObject[10300];
+        for (int i = 0; i < 10000; i++) {
+            array[i] = new CountingSort.SomeObject(i / 10, i);
+        }
+        int[] keys = ArrayInitializer.getRandomizedArray(300, 0, 1000);
+        Arrays.sort(keys);
+        for (int i = 0; i < keys.length; i++) {
+            array[10000 + i] = new CountingSort.SomeObject(keys[i], 10000 + i);
+        }
+
+        HybridSort.sort(array, Comparator.comparingInt(obj -> obj.key));
+        for (int i = 1; i < array.length; i++) {
+            Assert.assertTrue(array[i - 1].key <= array[i].key);
+            if (array[i - 1].key == array[i].key) {
+                Assert.assertTrue(array[i - 1].value < array[i].value);
+            }
+        }
+    }
+
+    @Test
+    public void sortObjectRange() {
+        Integer[] array = new Integer[1000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = (i * 7919) % 1000;
+        }
+        Integer[] copy = Arrays.copyOf(array, array.length);
+
+        Arrays.sort(array, 100, 900);
+        HybridSort.sort(copy, 100, 900, Comparator.<Integer>naturalOrder());
+        Assert.assertArrayEquals(array, copy);
+    }
+}
@@ -9,7 +9,7 @@ import java.util.Arrays;
 
 /**
  * @author Ignat Beresnev
- * @version 1.1
+ * @version 1.3
  * @since 26.02.17.
  */
 public class InsertionSortTest {
@@ -38,4 +38,52 @@ public class InsertionSortTest {
         InsertionSort.sort(copy);
         Assert.assertArrayEquals(array, copy);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void sortRange() {
+        int[] array = ArrayInitializer.getRandomizedArray(40, -20, 40);
+        int[] copy = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array, 10, 30);
+        InsertionSort.sort(copy, 10, 30);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    @Test
+    public void binarySort() {
+        int[] array = ArrayInitializer.getRandomizedArray(1000, -500, 1000);
+        int[] copy = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array);
+        InsertionSort.binarySort(copy);
+        Assert.assertArrayEquals(array, copy);
+        InsertionSort.binarySort(new int[]{});
+    }
+
+    @Test
+    public void gallopingSort() {
+        int[] array = ArrayInitializer.getRandomizedArray(1000, -500, 1000);
+        int[] copy = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array);
+        InsertionSort.gallopingSort(copy);
+        Assert.assertArrayEquals(array, copy);
+        InsertionSort.gallopingSort(new int[]{});
+    }
+
+    /**
+     * Sorted timestamps with every 100th one a little late.
+     */
+    @Test
+    public void gallopingSortNearlySorted() {
+        int[] array = new int[10000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = i % 100 == 99 ? i - 50 : i;
+        }
+        int[] copy = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array);
+        InsertionSort.gallopingSort(copy);
+        Assert.assertArrayEquals(array, copy);
+    }
+}
@@ -0,0 +1,112 @@
+package me.beresnev.algorithms.sorting;
+
+import me.beresnev.ArrayInitializer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.0
+ * @since 18.10.26.
+ */
+public class KWayMergeTest {
+
+    @Test
+    public void mergeInts() {
+        for (int k = 1; k <= 17; k++) {
+            int[][] shards = new int[k][];
+            PrimitiveIterator.OfInt[] sources = new PrimitiveIterator.OfInt[k];
+            for (int i = 0; i < k; i++) {
+                shards[i] = ArrayInitializer.getRandomizedArray(i * 37 % 100, -1000, 2000);
+                RadixSort.msdSort(shards[i]);
+                sources[i] = Arrays.stream(shards[i]).iterator();
+            }
+            int[] expected = Arrays.stream(shards).flatMapToInt(Arrays::stream).sorted().toArray();
+
+            int[] merged = toArray(KWayMerge.merge(sources), expected.length);
+            Assert.assertArrayEquals(expected, merged);
+        }
+    }
+
+    @Test
+    public void mergeDistinctInts() {
+        int[][] shards = new int[7][];
+        PrimitiveIterator.OfInt[] sources = new PrimitiveIterator.OfInt[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = ArrayInitializer.getRandomizedArray(500, 0, 100);
+            Arrays.sort(shards[i]);
+            sources[i] = Arrays.stream(shards[i]).iterator();
+        }
+        int[] expected = Arrays.stream(shards).flatMapToInt(Arrays::stream).sorted().distinct().toArray();
+
+        int[] merged = toArray(KWayMerge.mergeDistinct(sources), expected.length);
+        Assert.assertArrayEquals(expected, merged);
+    }
+
+    @Test
+    public void mergeLongs() {
+        long[][] shards = new long[5][];
+        PrimitiveIterator.OfLong[] sources = new PrimitiveIterator.OfLong[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = ArrayInitializer.getRandomizedLongs(1000 * i);
+            Arrays.sort(shards[i]);
+            sources[i] = Arrays.stream(shards[i]).iterator();
+        }
+        long[] expected = Arrays.stream(shards).flatMapToLong(Arrays::stream).sorted().toArray();
+
+        PrimitiveIterator.OfLong merge = KWayMerge.merge(sources);
+        long[] merged = new long[expected.length];
+        for (int i = 0; i < merged.length; i++) {
+            merged[i] = merge.nextLong();
+        }
+        Assert.assertFalse(merge.hasNext());
+        Assert.assertArrayEquals(expected, merged);
+    }
+
+    @Test
+    public void mergeDistinctLongs() {
+        PrimitiveIterator.OfLong merge = KWayMerge.mergeDistinct(
+                LongStream.of(1, 1, 2, 5, 5, 5).iterator(),
+                LongStream.of(1, 3, 5, 7).iterator(),
+                LongStream.empty().iterator());
+
+        Assert.assertArrayEquals(new long[]{1, 2, 3, 5, 7}, LongStream.generate(merge::nextLong).limit(5).toArray());
+        Assert.assertFalse(merge.hasNext());
+    }
+
+    @Test
+    public void noSources() {
+        Assert.assertFalse(KWayMerge.merge(new PrimitiveIterator.OfInt[0]).hasNext());
+        Assert.assertFalse(KWayMerge.merge(IntStream.empty().iterator(), IntStream.empty().iterator()).hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void nextAfterEnd() {
+        PrimitiveIterator.OfInt merge = KWayMerge.merge(IntStream.of(1).iterator());
+        merge.nextInt();
+        merge.nextInt();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsortedSource() {
+        PrimitiveIterator.OfInt merge = KWayMerge.merge(IntStream.of(1, 5, 2).iterator(), IntStream.of(3).iterator());
+        while (merge.hasNext()) {
+            merge.nextInt();
+        }
+    }
+
+    private static int[] toArray(PrimitiveIterator.OfInt merge, int length) {
+        int[] merged = new int[length];
+        for (int i = 0; i < length; i++) {
+            merged[i] = merge.nextInt();
+        }
+        Assert.assertFalse(merge.hasNext());
+        return merged;
+    }
+}
@@ -1,17 +1,26 @@
 package me.beresnev.algorithms.sorting;
 
 import me.beresnev.ArrayInitializer;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * @author Ignat Beresnev
- * @version 1.1
+ * @version 1.4
  * @since 26.02.17.
  */
 public class MergeSortTest {
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
     @Test
     public void simpleSort() {
         int[] array = ArrayInitializer.getRandomizedArray(40, 0, 40);
@@ -64,4 +73,90 @@ public class MergeSortTest {
         copy = MergeSort.sortReturn(copy);
         Assert.assertArrayEquals(array, copy);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void parallelSort() {
+        int[] array = ArrayInitializer.getRandomizedArray(100000, -500, 1000);
+        int[] copy = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array);
+        MergeSort.parallelSort(copy, pool, 64);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    @Test
+    public void parallelSortSmallArray() {
+        int[] array = ArrayInitializer.getRandomizedArray(40, 0, 40);
+        int[] copy = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array);
+        MergeSort.parallelSort(copy, pool);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parallelSortBadThreshold() {
+        MergeSort.parallelSort(new int[]{3, 2, 1}, pool, 0);
+    }
+
+    @Test
+    public void sortBottomUp() {
+        int[] array = ArrayInitializer.getRandomizedArray(1001, -500, 1000);
+        int[] copy = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array);
+        MergeSort.sortBottomUp(copy, new int[copy.length]);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    @Test
+    public void sortBottomUpReusedScratch() {
+        int[] scratch = new int[100];
+        for (int length = 0; length <= scratch.length; length++) {
+            int[] array = ArrayInitializer.getRandomizedArray(length, -20, 40);
+            int[] copy = ArrayInitializer.getCopyOf(array);
+
+            Arrays.sort(array);
+            MergeSort.sortBottomUp(copy, scratch);
+            Assert.assertArrayEquals(array, copy);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void sortBottomUpSmallScratch() {
+        MergeSort.sortBottomUp(new int[]{3, 2, 1}, new int[2]);
+    }
+
+    @Test
+    public void sortLongs() {
+        ArrayInitializer.assertSortsLongs(MergeSort::sort);
+    }
+
+    @Test
+    public void sortDoubles() {
+        ArrayInitializer.assertSortsDoubles(MergeSort::sort);
+    }
+
+    @Test
+    public void sortShorts() {
+        ArrayInitializer.assertSortsShorts(MergeSort::sort);
+    }
+
+    @Test
+    public void sortBytes() {
+        ArrayInitializer.assertSortsBytes(MergeSort::sort);
+    }
+
+    @Test
+    public void sortBottomUpDoublesReusedScratch() {
+        double[] scratch = new double[100];
+        for (int length = 0; length <= scratch.length; length++) {
+            double[] array = ArrayInitializer.getRandomizedDoubles(length);
+            double[] copy = Arrays.copyOf(array, array.length);
+
+            Arrays.sort(array);
+            MergeSort.sortBottomUp(copy, scratch);
+            Assert.assertArrayEquals(ArrayInitializer.toBits(array), ArrayInitializer.toBits(copy));
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package me.beresnev.algorithms.sorting;
+
+import me.beresnev.ArrayInitializer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.0
+ * @since 18.10.26.
+ */
+public class OffHeapSortTest {
+    /**
+     * Record is: 4 bytes of id, 8 bytes of key, 4 bytes of id again.
+     * Ids are there to check that records are moved as a whole.
+     */
+    private static final int RECORD_WIDTH = 16;
+    private static final int KEY_OFFSET = 4;
+
+    private Path file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = Files.createTempFile("records", ".bin");
+    }
+
+    @After
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void sortLongBuffer() {
+        long[] array = ArrayInitializer.getRandomizedLongs(5000);
+        LongBuffer buffer = ByteBuffer.allocateDirect(array.length * 8).asLongBuffer();
+        buffer.put(array);
+        buffer.flip();
+
+        Arrays.sort(array);
+        OffHeapSort.sort(buffer);
+        long[] sorted = new long[array.length];
+        buffer.get(sorted);
+        Assert.assertArrayEquals(array, sorted);
+    }
+
+    /**
+     * Only [position, limit) is sorted.
+     */
+    @Test
+    public void sortLongBufferRemaining() {
+        long[] array = ArrayInitializer.getRandomizedLongs(1000);
+        long[] copy = Arrays.copyOf(array, array.length);
+        LongBuffer buffer = LongBuffer.wrap(copy, 100, 800);
+
+        Arrays.sort(array, 100, 900);
+        OffHeapSort.sort(buffer);
+        Assert.assertArrayEquals(array, copy);
+        Assert.assertEquals(100, buffer.position());
+        Assert.assertEquals(900, buffer.limit());
+    }
+
+    @Test
+    public void sortByteBufferLittleEndian() {
+        long[] keys = ArrayInitializer.getRandomizedLongs(3000);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(keys.length * RECORD_WIDTH).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < keys.length; i++) {
+            buffer.putInt(i).putLong(keys[i]).putInt(i);
+        }
+        buffer.flip();
+
+        OffHeapSort.sort(buffer, RECORD_WIDTH, KEY_OFFSET);
+        assertSortedRecords(buffer, keys);
+    }
+
+    /**
+     * 13-byte records: copying goes 8 bytes at a time and then byte by
+     * byte. Few keys, so most buckets end up in insertion sort.
+     */
+    @Test
+    public void sortOddWidthRecords() {
+        long[] keys = new long[500];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = (i * 7919) % 40 - 20;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(keys.length * 13);
+        for (int i = 0; i < keys.length; i++) {
+            buffer.putInt(i).putLong(keys[i]).put((byte) i);
+        }
+        buffer.flip();
+
+        OffHeapSort.sort(buffer, 13, 4);
+        boolean[] seen = new boolean[keys.length];
+        long previous = Long.MIN_VALUE;
+        for (int i = 0; i < keys.length; i++) {
+            int id = buffer.getInt();
+            long key = buffer.getLong();
+            Assert.assertEquals((byte) id, buffer.get());
+            Assert.assertEquals(keys[id], key);
+            Assert.assertTrue(previous <= key);
+            Assert.assertFalse(seen[id]);
+            seen[id] = true;
+            previous = key;
+        }
+    }
+
+    @Test
+    public void sortFile() throws IOException {
+        long[] keys = ArrayInitializer.getRandomizedLongs(5000);
+        writeRecords(keys);
+
+        OffHeapSort.sort(file, RECORD_WIDTH, KEY_OFFSET);
+        assertSortedRecords(ByteBuffer.wrap(Files.readAllBytes(file)), keys);
+    }
+
+    /**
+     * Chunks of 7 records (the limit isn't a multiple of the width)
+     * instead of 1 GB, so the file is sorted chunk by chunk and merged.
+     */
+    @Test
+    public void sortFileByChunks() throws IOException {
+        long[] keys = ArrayInitializer.getRandomizedLongs(1001);
+        for (int i = 0; i < keys.length; i += 3) {
+            keys[i] = keys[i] % 10; // repeating keys
+        }
+        writeRecords(keys);
+
+        OffHeapSort.sort(file, RECORD_WIDTH, KEY_OFFSET, 7 * RECORD_WIDTH + 5);
+        assertSortedRecords(ByteBuffer.wrap(Files.readAllBytes(file)), keys);
+    }
+
+    @Test
+    public void emptyFile() throws IOException {
+        OffHeapSort.sort(file, RECORD_WIDTH, KEY_OFFSET);
+        Assert.assertEquals(0, Files.size(file));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void keyOutsideOfRecord() {
+        OffHeapSort.sort(ByteBuffer.allocate(32), RECORD_WIDTH, 9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void badFileSize() throws IOException {
+        Files.write(file, new byte[RECORD_WIDTH + 1]);
+        OffHeapSort.sort(file, RECORD_WIDTH, KEY_OFFSET);
+    }
+
+    private void writeRecords(long[] keys) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(keys.length * RECORD_WIDTH);
+        for (int i = 0; i < keys.length; i++) {
+            buffer.putInt(i).putLong(keys[i]).putInt(i);
+        }
+        Files.write(file, buffer.array());
+    }
+
+    /**
+     * Keys must be sorted, and every record must have
+     * the same id on both sides and the key it started with.
+     */
+    private static void assertSortedRecords(ByteBuffer buffer, long[] keys) {
+        long[] sortedKeys = Arrays.copyOf(keys, keys.length);
+        Arrays.sort(sortedKeys);
+        boolean[] seen = new boolean[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            int id = buffer.getInt();
+            long key = buffer.getLong();
+            Assert.assertEquals(id, buffer.getInt());
+            Assert.assertEquals(sortedKeys[i], key);
+            Assert.assertEquals(keys[id], key);
+            Assert.assertFalse(seen[id]);
+            seen[id] = true;
+        }
+    }
+}
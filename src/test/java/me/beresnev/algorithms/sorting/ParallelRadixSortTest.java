@@ -0,0 +1,50 @@
+package me.beresnev.algorithms.sorting;
+
+import me.beresnev.ArrayInitializer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.0
+ * @since 18.10.26.
+ */
+public class ParallelRadixSortTest {
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void sort() {
+        int[] array = ArrayInitializer.getRandomizedArray(200000, -100000, 200000);
+        array[0] = Integer.MIN_VALUE;
+        array[1] = Integer.MAX_VALUE;
+        int[] copy = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array);
+        ParallelRadixSort.sort(copy, pool);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    @Test
+    public void smallArray() {
+        int[] array = ArrayInitializer.getNegativeArray(40);
+        int[] copy = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array);
+        ParallelRadixSort.sort(copy, pool);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    @Test
+    public void emptyArray() {
+        ParallelRadixSort.sort(new int[]{}, pool);
+    }
+}
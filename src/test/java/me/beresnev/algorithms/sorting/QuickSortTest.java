@@ -0,0 +1,151 @@
+package me.beresnev.algorithms.sorting;
+
+import me.beresnev.ArrayInitializer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.0
+ * @since 18.10.26.
+ */
+public class QuickSortTest {
+    private Random random = new Random();
+
+    @Test
+    public void sort() {
+        for (int length = 0; length < 2000; length += 97) {
+            int[] array = ArrayInitializer.getRandomizedArray(length, -1000, 2000);
+            int[] copy = ArrayInitializer.getCopyOf(array);
+
+            Arrays.sort(array);
+            QuickSort.sort(copy);
+            Assert.assertArrayEquals(array, copy);
+        }
+    }
+
+    @Test
+    public void bigArray() {
+        int[] array = new int[200000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = random.nextInt();
+        }
+        int[] copy = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array);
+        QuickSort.sort(copy);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    @Test
+    public void repeatingArray() {
+        int[] array = ArrayInitializer.getRandomizedArray(10000, 0, 3);
+        int[] copy = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array);
+        QuickSort.sort(copy);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    @Test
+    public void sortedAndReversed() {
+        int[] array = new int[10000];
+        int[] reversed = new int[array.length];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = i;
+            reversed[i] = array.length - 1 - i;
+        }
+        int[] copy = ArrayInitializer.getCopyOf(array);
+
+        QuickSort.sort(copy);
+        QuickSort.sort(reversed);
+        Assert.assertArrayEquals(array, copy);
+        Assert.assertArrayEquals(array, reversed);
+    }
+
+    @Test
+    public void sortLongs() {
+        long[] array = new long[50000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = i % 10 == 0 ? 42 : random.nextLong();
+        }
+        long[] copy = Arrays.copyOf(array, array.length);
+
+        Arrays.sort(array);
+        QuickSort.sort(copy);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    /**
+     * Arrays.sort puts -0.0 before 0.0 and NaNs at the end, so QuickSort has to as well.
+     */
+    @Test
+    public void sortDoubles() {
+        double[] array = new double[50000];
+        for (int i = 0; i < array.length; i++) {
+            switch (i % 50) {
+                case 0:
+                    array[i] = Double.NaN;
+                    break;
+                case 1:
+                    array[i] = -0.0d;
+                    break;
+                case 2:
+                    array[i] = 0.0d;
+                    break;
+                default:
+                    array[i] = random.nextGaussian();
+            }
+        }
+        double[] copy = Arrays.copyOf(array, array.length);
+
+        Arrays.sort(array);
+        QuickSort.sort(copy);
+        for (int i = 0; i < array.length; i++) {
+            Assert.assertEquals(Double.doubleToLongBits(array[i]), Double.doubleToLongBits(copy[i]));
+        }
+    }
+
+    @Test
+    public void emptyArray() {
+        QuickSort.sort(new int[]{});
+        QuickSort.sort(new long[]{});
+        QuickSort.sort(new double[]{});
+    }
+
+    /**
+     * Depth 0 goes to heap sort right away, depth 1 partitions once and then
+     * heap sorts the parts. Normal sorting never runs out of depth on random data.
+     */
+    @Test
+    public void heapSortFallback() {
+        for (int depth = 0; depth <= 1; depth++) {
+            int[] ints = ArrayInitializer.getRandomizedArray(5000, -1000, 2000);
+            int[] intsCopy = ArrayInitializer.getCopyOf(ints);
+            Arrays.sort(ints, 100, 4900);
+            QuickSort.sort(intsCopy, 100, 4899, depth);
+            Assert.assertArrayEquals(ints, intsCopy);
+
+            long[] longs = new long[5000];
+            for (int i = 0; i < longs.length; i++) {
+                longs[i] = random.nextLong();
+            }
+            long[] longsCopy = Arrays.copyOf(longs, longs.length);
+            Arrays.sort(longs);
+            QuickSort.sort(longsCopy, 0, longsCopy.length - 1, depth);
+            Assert.assertArrayEquals(longs, longsCopy);
+
+            double[] doubles = new double[5000];
+            for (int i = 0; i < doubles.length; i++) {
+                doubles[i] = random.nextGaussian();
+            }
+            double[] doublesCopy = Arrays.copyOf(doubles, doubles.length);
+            Arrays.sort(doubles);
+            QuickSort.sort(doublesCopy, 0, doublesCopy.length - 1, depth);
+            Assert.assertArrayEquals(ArrayInitializer.toBits(doubles), ArrayInitializer.toBits(doublesCopy));
+        }
+    }
+}
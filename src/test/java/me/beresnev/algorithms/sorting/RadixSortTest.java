@@ -5,13 +5,25 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
 
 /**
  * @author Ignat Beresnev
- * @version 1.1
+ * @version 1.4
  * @since 25.02.17.
  */
 public class RadixSortTest {
+    private static final Comparator<byte[]> UNSIGNED_ORDER = new Comparator<byte[]>() {
+        @Override
+        public int compare(byte[] a, byte[] b) {
+            for (int i = 0; i < Math.min(a.length, b.length); i++) {
+                if (a[i] != b[i]) return (a[i] & 0xFF) - (b[i] & 0xFF);
+            }
+            return a.length - b.length;
+        }
+    };
+
     @Test
     public void lsdNoCopyingSort() throws Exception {
         int[] array = ArrayInitializer.getRandomizedArray(40, 0, 40);
@@ -77,4 +89,188 @@ public class RadixSortTest {
         int[] copy = RadixSort.lsdNoCopyingSort(array, 40);
         Assert.assertArrayEquals(array, copy);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void lsdSortBytes() {
+        int[] array = ArrayInitializer.getRandomizedArray(1000, -500, 1000);
+        array[0] = Integer.MIN_VALUE;
+        array[1] = Integer.MAX_VALUE;
+        int[] copy = ArrayInitializer.getCopyOf(array);
+        int[] copy16 = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array);
+        RadixSort.lsdSortBytes(copy);
+        RadixSort.lsdSortBytes(copy16, 16);
+        Assert.assertArrayEquals(array, copy);
+        Assert.assertArrayEquals(array, copy16);
+    }
+
+    /**
+     * Only the lowest digit differs, so all other passes are skipped.
+     */
+    @Test
+    public void lsdSortBytesSameDigits() {
+        int[] array = ArrayInitializer.getRandomizedArray(100, 0, 200);
+        int[] copy = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array);
+        RadixSort.lsdSortBytes(copy);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    @Test
+    public void lsdSortBytesLongs() {
+        Random random = new Random();
+        long[] array = new long[1000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = random.nextLong();
+        }
+        array[0] = Long.MIN_VALUE;
+        array[1] = Long.MAX_VALUE;
+        long[] copy = Arrays.copyOf(array, array.length);
+        long[] copy16 = Arrays.copyOf(array, array.length);
+
+        Arrays.sort(array);
+        RadixSort.lsdSortBytes(copy);
+        RadixSort.lsdSortBytes(copy16, 16);
+        Assert.assertArrayEquals(array, copy);
+        Assert.assertArrayEquals(array, copy16);
+    }
+
+    @Test
+    public void lsdSortBytesEmptyArray() {
+        RadixSort.lsdSortBytes(new int[]{});
+        RadixSort.lsdSortBytes(new long[]{});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void lsdSortBytesBadDigitBits() {
+        RadixSort.lsdSortBytes(new int[]{3, 2, 1}, 4);
+    }
+
+    @Test
+    public void msdSort() {
+        int[] array = ArrayInitializer.getRandomizedArray(10000, -50000, 100000);
+        array[0] = Integer.MIN_VALUE;
+        array[1] = Integer.MAX_VALUE;
+        int[] copy = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array);
+        RadixSort.msdSort(copy);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    @Test
+    public void msdSortRepeating() {
+        int[] array = ArrayInitializer.getRandomizedArray(1000, 0, 3);
+        int[] copy = ArrayInitializer.getCopyOf(array);
+
+        Arrays.sort(array);
+        RadixSort.msdSort(copy);
+        Assert.assertArrayEquals(array, copy);
+    }
+
+    @Test
+    public void msdSortBytes() {
+        Random random = new Random();
+        byte[][] array = new byte[5000][];
+        for (int i = 0; i < array.length; i++) {
+            // short keys and a small alphabet to get a lot of common prefixes
+            array[i] = new byte[random.nextInt(6)];
+            for (int j = 0; j < array[i].length; j++) {
+                array[i][j] = (byte) (random.nextInt(4) * 100);
+            }
+        }
+        byte[][] copy = Arrays.copyOf(array, array.length);
+
+        Arrays.sort(array, UNSIGNED_ORDER);
+        RadixSort.msdSort(copy);
+        for (int i = 0; i < array.length; i++) {
+            Assert.assertArrayEquals(array[i], copy[i]);
+        }
+    }
+
+    /**
+     * Every byte of the common prefix used to be a level of recursion,
+     * so 10000 bytes overflowed the stack.
+     */
+    @Test
+    public void msdSortLongCommonPrefix() {
+        Random random = new Random();
+        byte[] prefix = new byte[10000];
+        Arrays.fill(prefix, (byte) 200);
+        byte[][] array = new byte[100][];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = Arrays.copyOf(prefix, prefix.length + random.nextInt(3));
+            for (int j = prefix.length; j < array[i].length; j++) {
+                array[i][j] = (byte) random.nextInt(3);
+            }
+        }
+        byte[][] copy = Arrays.copyOf(array, array.length);
+
+        Arrays.sort(array, UNSIGNED_ORDER);
+        RadixSort.msdSort(copy);
+        for (int i = 0; i < array.length; i++) {
+            Assert.assertArrayEquals(array[i], copy[i]);
+        }
+    }
+
+    @Test
+    public void msdSortEmptyArray() {
+        RadixSort.msdSort(new int[]{});
+        RadixSort.msdSort(new byte[][]{});
+    }
+
+    @Test
+    public void lsdSortBytesDoubles() {
+        ArrayInitializer.assertSortsDoubles(RadixSort::lsdSortBytes);
+    }
+
+    @Test
+    public void lsdSortBytesShorts() {
+        ArrayInitializer.assertSortsShorts(RadixSort::lsdSortBytes);
+    }
+
+    @Test
+    public void lsdSortBytesBytes() {
+        ArrayInitializer.assertSortsBytes(RadixSort::lsdSortBytes);
+    }
+
+    @Test
+    public void lsdSortBytesDoubles16Bits() {
+        ArrayInitializer.assertSortsDoubles(arr -> RadixSort.lsdSortBytes(arr, 16));
+    }
+
+    /**
+     * Scratch is longer than most of the arrays, only its beginning is used.
+     */
+    @Test
+    public void lsdSortBytesReusedScratch() {
+        int[] scratch = new int[100];
+        double[] doubleScratch = new double[100];
+        for (int length = 0; length <= scratch.length; length++) {
+            int[] array = ArrayInitializer.getRandomizedArray(length, -1000, 2000);
+            int[] copy = ArrayInitializer.getCopyOf(array);
+            Arrays.sort(array);
+            RadixSort.lsdSortBytes(copy, scratch);
+            Assert.assertArrayEquals(array, copy);
+
+            double[] doubles = ArrayInitializer.getRandomizedDoubles(length);
+            double[] doublesCopy = Arrays.copyOf(doubles, length);
+            Arrays.sort(doubles);
+            RadixSort.lsdSortBytes(doublesCopy, doubleScratch);
+            Assert.assertArrayEquals(ArrayInitializer.toBits(doubles), ArrayInitializer.toBits(doublesCopy));
+        }
+    }
+
+    @Test
+    public void lsdSortBytesLongsAndShortsWithScratch() {
+        ArrayInitializer.assertSortsLongs(arr -> RadixSort.lsdSortBytes(arr, new long[arr.length + 7]));
+        ArrayInitializer.assertSortsShorts(arr -> RadixSort.lsdSortBytes(arr, new short[arr.length + 7]));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void lsdSortBytesSmallScratch() {
+        RadixSort.lsdSortBytes(new long[]{3, 2, 1}, new long[2]);
+    }
+}
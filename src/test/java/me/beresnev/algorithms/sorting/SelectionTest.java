@@ -0,0 +1,123 @@
+package me.beresnev.algorithms.sorting;
+
+import me.beresnev.ArrayInitializer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.0
+ * @since 18.10.26.
+ */
+public class SelectionTest {
+    @Test
+    public void nthElement() {
+        int[] array = ArrayInitializer.getRandomizedArray(10000, -5000, 10000);
+        int[] sorted = ArrayInitializer.getCopyOf(array);
+        Arrays.sort(sorted);
+
+        for (int n : new int[]{0, 1, 17, 4999, 5000, 9998, 9999}) {
+            int[] copy = ArrayInitializer.getCopyOf(array);
+            Assert.assertEquals(sorted[n], Selection.nthElement(copy, n));
+            for (int i = 0; i < n; i++) {
+                Assert.assertTrue(copy[i] <= copy[n]);
+            }
+            for (int i = n + 1; i < copy.length; i++) {
+                Assert.assertTrue(copy[i] >= copy[n]);
+            }
+        }
+    }
+
+    /**
+     * Small ranges, no sampling.
+     */
+    @Test
+    public void nthElementSmall() {
+        for (int length = 1; length < 100; length++) {
+            int[] array = ArrayInitializer.getRandomizedArray(length, -10, 20);
+            int[] sorted = ArrayInitializer.getCopyOf(array);
+            Arrays.sort(sorted);
+
+            int n = length / 3;
+            Assert.assertEquals(sorted[n], Selection.nthElement(array, n));
+        }
+    }
+
+    @Test
+    public void nthElementRepeating() {
+        int[] array = ArrayInitializer.getRandomizedArray(100000, 0, 3);
+        int[] sorted = ArrayInitializer.getCopyOf(array);
+        Arrays.sort(sorted);
+
+        Assert.assertEquals(sorted[50000], Selection.nthElement(array, 50000));
+    }
+
+    @Test
+    public void nthElementSortedArrays() {
+        int[] ascending = IntStream.range(0, 10000).toArray();
+        int[] descending = IntStream.range(0, 10000).map(i -> 10000 - i).toArray();
+
+        Assert.assertEquals(1234, Selection.nthElement(ascending, 1234));
+        Assert.assertEquals(1235, Selection.nthElement(descending, 1234));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nthElementOutOfArray() {
+        Selection.nthElement(new int[]{1, 2, 3}, 3);
+    }
+
+    @Test
+    public void partialSort() {
+        int[] array = ArrayInitializer.getRandomizedArray(10000, -500, 1000);
+        int[] sorted = ArrayInitializer.getCopyOf(array);
+        Arrays.sort(sorted);
+
+        for (int k : new int[]{0, 1, 100, 9999, 10000}) {
+            int[] copy = ArrayInitializer.getCopyOf(array);
+            Selection.partialSort(copy, k);
+            Assert.assertArrayEquals(Arrays.copyOf(sorted, k), Arrays.copyOf(copy, k));
+
+            Arrays.sort(copy, k, copy.length); // the rest is still there
+            Assert.assertArrayEquals(sorted, copy);
+        }
+    }
+
+    @Test
+    public void topK() {
+        int[] array = ArrayInitializer.getRandomizedArray(10000, -5000, 10000);
+        int[] copy = ArrayInitializer.getCopyOf(array);
+        int[] sorted = ArrayInitializer.getCopyOf(array);
+        Arrays.sort(sorted);
+
+        int[] expected = new int[100];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = sorted[sorted.length - 1 - i];
+        }
+        Assert.assertArrayEquals(expected, Selection.topK(array, 100));
+        Assert.assertArrayEquals(copy, array);
+        Assert.assertEquals(0, Selection.topK(array, 0).length);
+    }
+
+    @Test
+    public void topKStream() {
+        int[] top = Selection.topK(IntStream.range(0, 1000000).iterator(), 3);
+        Assert.assertArrayEquals(new int[]{999999, 999998, 999997}, top);
+    }
+
+    /**
+     * Less values than k, all of them are returned.
+     */
+    @Test
+    public void topKShortStream() {
+        int[] top = Selection.topK(IntStream.of(5, -1, 3).iterator(), 10);
+        Assert.assertArrayEquals(new int[]{5, 3, -1}, top);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void topKTooBig() {
+        Selection.topK(new int[]{1, 2}, 3);
+    }
+}
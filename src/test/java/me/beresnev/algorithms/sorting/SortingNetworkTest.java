@@ -0,0 +1,97 @@
+package me.beresnev.algorithms.sorting;
+
+import me.beresnev.ArrayInitializer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.0
+ * @since 18.10.26.
+ */
+public class SortingNetworkTest {
+
+    /**
+     * 0-1 principle: if every input of zeros and ones is sorted,
+     * every input is.
+     */
+    @Test
+    public void sortsAllZeroOneInputs() {
+        for (int length = 0; length <= SortingNetwork.MAX_LENGTH; length++) {
+            for (int mask = 0; mask < 1 << length; mask++) {
+                int[] array = new int[length];
+                for (int i = 0; i < length; i++) {
+                    array[i] = (mask >>> i) & 1;
+                }
+                int[] expected = ArrayInitializer.getCopyOf(array);
+                Arrays.sort(expected);
+
+                SortingNetwork.sort(array, 0, length);
+                Assert.assertArrayEquals(expected, array);
+            }
+        }
+    }
+
+    @Test
+    public void sortIntsWithOffset() {
+        for (int length = 0; length <= SortingNetwork.MAX_LENGTH; length++) {
+            for (int run = 0; run < 100; run++) {
+                int[] array = ArrayInitializer.getRandomizedArray(length + 10, -50, 100);
+                int[] expected = ArrayInitializer.getCopyOf(array);
+                Arrays.sort(expected, 5, 5 + length);
+
+                SortingNetwork.sort(array, 5, length);
+                Assert.assertArrayEquals(expected, array);
+            }
+        }
+    }
+
+    @Test
+    public void sortLongs() {
+        for (int length = 0; length <= SortingNetwork.MAX_LENGTH; length++) {
+            for (int run = 0; run < 100; run++) {
+                long[] array = ArrayInitializer.getRandomizedLongs(length + 3);
+                long[] expected = array.clone();
+                Arrays.sort(expected, 3, 3 + length);
+
+                SortingNetwork.sort(array, 3, length);
+                Assert.assertArrayEquals(expected, array);
+            }
+        }
+    }
+
+    /**
+     * Compared bit by bit, so that -0.0 and 0.0 are different.
+     */
+    @Test
+    public void sortFloatsWithNaNsAndZeros() {
+        for (int length = 0; length <= SortingNetwork.MAX_LENGTH; length++) {
+            for (int run = 0; run < 100; run++) {
+                double[] doubles = ArrayInitializer.getRandomizedDoubles(length + 2);
+                float[] array = new float[doubles.length];
+                for (int i = 0; i < doubles.length; i++) {
+                    array[i] = (float) doubles[i];
+                }
+                float[] expected = array.clone();
+                Arrays.sort(expected, 1, 1 + length);
+
+                SortingNetwork.sort(array, 1, length);
+                for (int i = 0; i < array.length; i++) {
+                    Assert.assertEquals(Float.floatToIntBits(expected[i]), Float.floatToIntBits(array[i]));
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooLong() {
+        SortingNetwork.sort(new int[20], 0, SortingNetwork.MAX_LENGTH + 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeLength() {
+        SortingNetwork.sort(new long[4], 0, -1);
+    }
+}
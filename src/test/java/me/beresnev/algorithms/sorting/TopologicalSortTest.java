@@ -0,0 +1,184 @@
+package me.beresnev.algorithms.sorting;
+
+import me.beresnev.datastructures.DirectedGraph;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.0
+ * @since 18.10.26.
+ */
+public class TopologicalSortTest {
+    private final Random random = new Random();
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Dressing up: socks and trousers before boots, watch whenever.
+     * 0 - socks, 1 - trousers, 2 - boots, 3 - watch, 4 - belt
+     */
+    @Test
+    public void levels() {
+        DirectedGraph g = new DirectedGraph(5);
+        g.addEdge(0, 2);
+        g.addEdge(1, 2);
+        g.addEdge(1, 4);
+
+        List<int[]> levels = TopologicalSort.levels(g);
+        Assert.assertEquals(2, levels.size());
+        Assert.assertArrayEquals(new int[]{0, 1, 3}, levels.get(0));
+        Assert.assertArrayEquals(new int[]{2, 4}, levels.get(1));
+        Assert.assertArrayEquals(new int[]{0, 1, 3, 2, 4}, TopologicalSort.sort(g));
+    }
+
+    @Test
+    public void parallelLevels() {
+        DirectedGraph g = randomDag(200000, 600000);
+        List<int[]> levels = TopologicalSort.levels(g, pool);
+        assertLevels(g, levels);
+
+        // same levels, maybe in a different order inside of a level
+        List<int[]> sequential = TopologicalSort.levels(g);
+        Assert.assertEquals(sequential.size(), levels.size());
+        for (int i = 0; i < levels.size(); i++) {
+            Assert.assertEquals(sequential.get(i).length, levels.get(i).length);
+        }
+    }
+
+    /**
+     * Would overflow the stack with recursive DFS.
+     */
+    @Test
+    public void longChain() {
+        int n = 100000;
+        DirectedGraph g = new DirectedGraph(n);
+        for (int v = n - 1; v > 0; v--) {
+            g.addEdge(v, v - 1);
+        }
+        int[] order = TopologicalSort.sort(g);
+        for (int i = 0; i < n; i++) {
+            Assert.assertEquals(n - 1 - i, order[i]);
+        }
+    }
+
+    @Test
+    public void cycle() {
+        DirectedGraph g = new DirectedGraph(6);
+        g.addEdge(0, 1);
+        g.addEdge(1, 2);
+        g.addEdge(2, 3);
+        g.addEdge(3, 1); // 1 -> 2 -> 3 -> 1
+        g.addEdge(3, 4);
+        g.addEdge(5, 0);
+
+        assertCycle(g, catchCycle(g, null), 3);
+        assertCycle(g, catchCycle(g, pool), 3);
+    }
+
+    @Test
+    public void selfLoop() {
+        DirectedGraph g = new DirectedGraph(3);
+        g.addEdge(0, 1);
+        g.addEdge(1, 1);
+        assertCycle(g, catchCycle(g, null), 1);
+    }
+
+    @Test
+    public void emptyGraph() {
+        Assert.assertTrue(TopologicalSort.levels(new DirectedGraph(0)).isEmpty());
+        Assert.assertTrue(TopologicalSort.levels(new DirectedGraph(0), pool).isEmpty());
+    }
+
+    /**
+     * Edges go from smaller to bigger labels, labels are shuffled vertices.
+     */
+    private DirectedGraph randomDag(int n, int edges) {
+        int[] label = new int[n];
+        for (int i = 0; i < n; i++) {
+            label[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = label[i];
+            label[i] = label[j];
+            label[j] = temp;
+        }
+
+        DirectedGraph g = new DirectedGraph(n);
+        for (int i = 0; i < edges; i++) {
+            int a = random.nextInt(n - 1);
+            int b = a + 1 + random.nextInt(Math.min(100, n - 1 - a));
+            g.addEdge(label[a], label[b]);
+        }
+        return g;
+    }
+
+    /**
+     * Every vertex is in exactly one level, every edge goes to a later level,
+     * and every vertex but the ones in level 0 has an edge from the level
+     * right before it (it's not later than it has to be).
+     */
+    private static void assertLevels(DirectedGraph g, List<int[]> levels) {
+        int n = g.getVertexCount();
+        int[] levelOf = new int[n];
+        Arrays.fill(levelOf, -1);
+        for (int i = 0; i < levels.size(); i++) {
+            for (int v : levels.get(i)) {
+                Assert.assertEquals(-1, levelOf[v]);
+                levelOf[v] = i;
+            }
+        }
+
+        int[] latestPredecessor = new int[n];
+        Arrays.fill(latestPredecessor, -1);
+        for (int v = 0; v < n; v++) {
+            Assert.assertNotEquals(-1, levelOf[v]);
+            for (int e = g.getFirstEdge(v); e < g.getFirstEdge(v + 1); e++) {
+                int w = g.getTarget(e);
+                Assert.assertTrue(levelOf[v] < levelOf[w]);
+                latestPredecessor[w] = Math.max(latestPredecessor[w], levelOf[v]);
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            Assert.assertEquals(latestPredecessor[v] + 1, levelOf[v]);
+        }
+    }
+
+    private static int[] catchCycle(DirectedGraph g, ForkJoinPool pool) {
+        try {
+            if (pool == null) {
+                TopologicalSort.levels(g);
+            } else {
+                TopologicalSort.levels(g, pool);
+            }
+        } catch (TopologicalSort.CycleException e) {
+            return e.getCycle();
+        }
+        Assert.fail("Cycle wasn't found");
+        return null;
+    }
+
+    private static void assertCycle(DirectedGraph g, int[] cycle, int length) {
+        Assert.assertEquals(length, cycle.length);
+        for (int i = 0; i < cycle.length; i++) {
+            int v = cycle[i];
+            int next = cycle[(i + 1) % cycle.length];
+            boolean found = false;
+            for (int e = g.getFirstEdge(v); e < g.getFirstEdge(v + 1); e++) {
+                found |= g.getTarget(e) == next;
+            }
+            Assert.assertTrue(v + " -> " + next + " is not an edge", found);
+        }
+    }
+}
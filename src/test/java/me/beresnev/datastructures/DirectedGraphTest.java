@@ -0,0 +1,47 @@
+package me.beresnev.datastructures;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.0
+ * @since 18.10.26.
+ */
+public class DirectedGraphTest {
+    @Test
+    public void successors() {
+        DirectedGraph g = new DirectedGraph(4);
+        g.addEdge(2, 0);
+        g.addEdge(0, 1);
+        g.addEdge(2, 3);
+        g.addEdge(0, 1); // parallel edge
+
+        Assert.assertEquals(4, g.getEdgeCount());
+        Assert.assertEquals(2, g.getOutDegree(0));
+        Assert.assertEquals(0, g.getOutDegree(1));
+        Assert.assertEquals(2, g.getOutDegree(2));
+        Assert.assertEquals(0, g.getTarget(g.getFirstEdge(2)));
+        Assert.assertEquals(3, g.getTarget(g.getFirstEdge(2) + 1));
+        Assert.assertEquals(4, g.getFirstEdge(4));
+    }
+
+    /**
+     * Adding an edge after reading rebuilds the adjacency.
+     */
+    @Test
+    public void addAfterRead() {
+        DirectedGraph g = new DirectedGraph(3);
+        g.addEdge(0, 1);
+        Assert.assertEquals(0, g.getOutDegree(1));
+
+        g.addEdge(1, 2);
+        Assert.assertEquals(1, g.getOutDegree(1));
+        Assert.assertEquals(2, g.getTarget(g.getFirstEdge(1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noSuchVertex() {
+        new DirectedGraph(3).addEdge(0, 3);
+    }
+}
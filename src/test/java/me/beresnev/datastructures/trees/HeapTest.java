@@ -0,0 +1,72 @@
+package me.beresnev.datastructures.trees;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * @author Ignat Beresnev
+ * @version 1.0
+ * @since 18.10.26.
+ */
+public class HeapTest {
+
+    /**
+     * After the first removal, 9 sinks to index 1, which has the left child
+     * (index 2, value 7) only. 8 is added under 9 and swapped with it, but
+     * the left child is still skipped, so 8 would come out before 7.
+     */
+    @Test
+    public void minHeapBranchWithLeftChildOnly() {
+        MinHeap<Integer> heap = new MinHeap<>();
+        for (int value : new int[]{4, 7, 3, 9}) {
+            heap.add(value);
+        }
+        Assert.assertEquals(3, (int) heap.removeFirst());
+        heap.add(8);
+        Assert.assertEquals(4, (int) heap.removeFirst());
+        Assert.assertEquals(7, (int) heap.removeFirst());
+    }
+
+    @Test
+    public void maxHeapBranchWithLeftChildOnly() {
+        MaxHeap<Integer> heap = new MaxHeap<>();
+        for (int value : new int[]{5, 2, 6, 0}) {
+            heap.add(value);
+        }
+        Assert.assertEquals(6, (int) heap.removeFirst());
+        heap.add(1);
+        Assert.assertEquals(5, (int) heap.removeFirst());
+        Assert.assertEquals(2, (int) heap.removeFirst());
+    }
+
+    /**
+     * Adds and removals mixed, so that broken branches don't get fixed
+     * by the next removal. PriorityQueue knows the right answers.
+     */
+    @Test
+    public void sameAsPriorityQueue() {
+        Random random = new Random();
+        for (int run = 0; run < 100; run++) {
+            MinHeap<Integer> minHeap = new MinHeap<>();
+            MaxHeap<Integer> maxHeap = new MaxHeap<>();
+            PriorityQueue<Integer> min = new PriorityQueue<>();
+            PriorityQueue<Integer> max = new PriorityQueue<>(Collections.reverseOrder());
+            for (int op = 0; op < 200; op++) {
+                if (!min.isEmpty() && random.nextInt(3) == 0) {
+                    Assert.assertEquals(min.poll(), minHeap.removeFirst());
+                    Assert.assertEquals(max.poll(), maxHeap.removeFirst());
+                } else {
+                    int value = random.nextInt(50);
+                    minHeap.add(value);
+                    maxHeap.add(value);
+                    min.add(value);
+                    max.add(value);
+                }
+            }
+        }
+    }
+}